@@ -0,0 +1,73 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.domain.Job;
+import com.example.dronedelivery.domain.JobType;
+import com.example.dronedelivery.service.OpenJob;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Reproducible fleets and backlogs spread over a 2x2 degree area around Riyadh.
+ */
+final class BenchmarkData {
+
+    static final double MIN_LAT = 23.7;
+    static final double MIN_LNG = 45.7;
+    static final double SPAN_DEGREES = 2.0;
+
+    private BenchmarkData() {}
+
+    static List<Drone> drones(int count, long seed) {
+        Random random = new Random(seed);
+        List<Drone> drones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Drone drone = new Drone("bench-drone-" + i);
+            drone.setId(new UUID(seed, i));
+            drone.setLastLat(lat(random));
+            drone.setLastLng(lng(random));
+            drone.setLastHeartbeatAt(Instant.now());
+            drones.add(drone);
+        }
+        return drones;
+    }
+
+    /**
+     * Oldest first, one second apart.
+     */
+    static List<OpenJob> openJobs(int count, long seed) {
+        Random random = new Random(seed);
+        Instant start = Instant.now().minusSeconds(count);
+        List<OpenJob> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            jobs.add(new OpenJob(new UUID(seed, i), 0, lat(random), lng(random), null, start.plusSeconds(i)));
+        }
+        return jobs;
+    }
+
+    static Job job(Random random) {
+        Job job = new Job(UUID.randomUUID(), JobType.PICKUP_AND_DELIVER, lat(random), lng(random), lat(random), lng(random), null);
+        job.setId(UUID.randomUUID());
+        return job;
+    }
+
+    static DeliveryOrder order(Random random) {
+        DeliveryOrder order = new DeliveryOrder(UUID.randomUUID(), lat(random), lng(random), lat(random), lng(random));
+        order.setId(UUID.randomUUID());
+        order.setCurrentJobId(UUID.randomUUID());
+        return order;
+    }
+
+    static double lat(Random random) {
+        return MIN_LAT + random.nextDouble() * SPAN_DEGREES;
+    }
+
+    static double lng(Random random) {
+        return MIN_LNG + random.nextDouble() * SPAN_DEGREES;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.service.AssignmentMode;
+import com.example.dronedelivery.service.AssignmentPlanner;
+import com.example.dronedelivery.service.OpenJob;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One planning round of {@code JobAssignmentScheduler}: choosing a free drone for every open job.
+ * Uses the default scheduler config, so fleets from {@code partition-min-drones} on are planned per cell in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class CandidateSelectionBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int fleetSize;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int backlog;
+
+    @Param({"GREEDY", "OPTIMAL"})
+    public AssignmentMode mode;
+
+    private AssignmentPlanner planner;
+    private List<Drone> drones;
+    private List<OpenJob> openJobs;
+    private Instant now;
+
+    @Setup
+    public void setUp() {
+        planner = new AssignmentPlanner(mode, 120, 200, 8, 0.5, 2000, 0);
+        drones = BenchmarkData.drones(fleetSize, 1);
+        openJobs = BenchmarkData.openJobs(backlog, 2);
+        now = Instant.now();
+    }
+
+    @TearDown
+    public void tearDown() {
+        planner.stop();
+    }
+
+    @Benchmark
+    public AssignmentPlanner.Plan plan() {
+        return planner.plan(openJobs, drones, now);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.service.GeoUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeoBenchmark {
+
+    private static final int POINTS = 1 << 12;
+
+    private final double[] lats = new double[POINTS];
+    private final double[] lngs = new double[POINTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < POINTS; i++) {
+            lats[i] = BenchmarkData.lat(random);
+            lngs[i] = BenchmarkData.lng(random);
+        }
+    }
+
+    @Benchmark
+    public double haversineMeters() {
+        int i = next;
+        int j = (i + 1) & (POINTS - 1);
+        next = j;
+        return GeoUtil.haversineMeters(lats[i], lngs[i], lats[j], lngs[j]);
+    }
+}
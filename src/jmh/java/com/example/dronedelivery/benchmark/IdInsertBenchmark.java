@@ -0,0 +1,105 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.domain.UuidV7;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting {@code rows} job-shaped rows into a fresh in-memory H2 table keyed by UUID, committing every 1000 rows like
+ * a stream of small transactions. Compares random (v4) with time-ordered (v7) keys, one statement per row against JDBC
+ * batches of the default Hibernate batch size. Each iteration is one single-shot run, so the score is the time per
+ * {@code rows} inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class IdInsertBenchmark {
+
+    private static final int COMMIT_EVERY = 1000;
+
+    public enum Ids { RANDOM, V7 }
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"RANDOM", "V7"})
+    public Ids ids;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private Connection connection;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:ids-" + System.nanoTime(), "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE job (
+                        id UUID PRIMARY KEY,
+                        version BIGINT NOT NULL,
+                        order_id UUID NOT NULL,
+                        status VARCHAR(32) NOT NULL,
+                        pickup_lat DOUBLE PRECISION NOT NULL,
+                        pickup_lng DOUBLE PRECISION NOT NULL,
+                        created_at TIMESTAMP NOT NULL
+                    )""");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        Random random = new Random(1);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO job (id, version, order_id, status, pickup_lat, pickup_lng, created_at) VALUES (?, 0, ?, 'OPEN', ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, nextId());
+                insert.setObject(2, nextId());
+                insert.setDouble(3, BenchmarkData.lat(random));
+                insert.setDouble(4, BenchmarkData.lng(random));
+                insert.setTimestamp(5, Timestamp.from(Instant.now()));
+                if (batchSize == 1) {
+                    insert.executeUpdate();
+                } else {
+                    insert.addBatch();
+                    if (i % batchSize == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                if (i % COMMIT_EVERY == 0) {
+                    if (batchSize > 1) {
+                        insert.executeBatch();
+                    }
+                    connection.commit();
+                }
+            }
+            if (batchSize > 1) {
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+        return rows;
+    }
+
+    private UUID nextId() {
+        return ids == Ids.V7 ? UuidV7.next() : UUID.randomUUID();
+    }
+}
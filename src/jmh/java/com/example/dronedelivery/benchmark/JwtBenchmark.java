@@ -0,0 +1,37 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.security.AuthRole;
+import com.example.dronedelivery.security.JwtProperties;
+import com.example.dronedelivery.security.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private UUID actorId;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new JwtProperties());
+        actorId = UUID.randomUUID();
+        token = jwtService.issueToken("bench-drone", AuthRole.DRONE, actorId);
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return jwtService.issueToken("bench-drone", AuthRole.DRONE, actorId);
+    }
+
+    @Benchmark
+    public Claims parseAndValidate() {
+        return jwtService.parseAndValidate(token);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.service.GeoUtil;
+import com.example.dronedelivery.service.OpenJob;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The original candidate-selection loop (every open job scans every free drone), kept as a reference point for
+ * {@link CandidateSelectionBenchmark}. Sizes stop at 10k: the scan is quadratic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+public class LinearScanBaselineBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int fleetSize;
+
+    @Param({"100", "1000", "10000"})
+    public int backlog;
+
+    private List<Drone> drones;
+    private List<OpenJob> openJobs;
+
+    @Setup
+    public void setUp() {
+        drones = BenchmarkData.drones(fleetSize, 1);
+        openJobs = BenchmarkData.openJobs(backlog, 2);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        List<Drone> free = new ArrayList<>(drones);
+        int assigned = 0;
+        for (OpenJob job : openJobs) {
+            if (free.isEmpty()) {
+                break;
+            }
+            int best = -1;
+            double bestMeters = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < free.size(); i++) {
+                Drone drone = free.get(i);
+                double meters = GeoUtil.haversineMeters(job.pickupLat(), job.pickupLng(), drone.getLastLat(), drone.getLastLng());
+                if (meters < bestMeters) {
+                    bestMeters = meters;
+                    best = i;
+                }
+            }
+            free.remove(best);
+            assigned++;
+        }
+        return assigned;
+    }
+}
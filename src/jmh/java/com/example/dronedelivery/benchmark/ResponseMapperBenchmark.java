@@ -0,0 +1,47 @@
+package com.example.dronedelivery.benchmark;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.example.dronedelivery.api.dto.OrderDtos;
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.domain.Job;
+import com.example.dronedelivery.service.ResponseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResponseMapperBenchmark {
+
+    private Job job;
+    private DeliveryOrder order;
+    private OrderDtos.Progress progress;
+    private Drone drone;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(3);
+        job = BenchmarkData.job(random);
+        order = BenchmarkData.order(random);
+        progress = new OrderDtos.Progress(ResponseMapper.coordinates(BenchmarkData.lat(random), BenchmarkData.lng(random)), 420);
+        drone = BenchmarkData.drones(1, 4).get(0);
+    }
+
+    @Benchmark
+    public DroneDtos.JobResponse jobToDto() {
+        return ResponseMapper.toDto(job);
+    }
+
+    @Benchmark
+    public OrderDtos.OrderResponse orderToDto() {
+        return ResponseMapper.toDto(order, progress);
+    }
+
+    @Benchmark
+    public DroneDtos.DroneResponse droneToDto() {
+        return ResponseMapper.toDto(drone);
+    }
+}
@@ -1,18 +1,25 @@
 package com.example.dronedelivery.api.controllers;
 
+import com.example.dronedelivery.api.dto.CacheDtos;
+import com.example.dronedelivery.api.dto.DispatchDtos;
 import com.example.dronedelivery.api.dto.DroneDtos;
 import com.example.dronedelivery.api.dto.OrderDtos;
 import com.example.dronedelivery.domain.DroneStatus;
-import com.example.dronedelivery.repo.JobRepository;
-import com.example.dronedelivery.repo.OrderRepository;
+import com.example.dronedelivery.domain.JobStatus;
+import com.example.dronedelivery.domain.OrderStatus;
 import com.example.dronedelivery.service.AdminService;
 import com.example.dronedelivery.service.ApiException;
+import com.example.dronedelivery.service.KeysetPager;
 import com.example.dronedelivery.service.ResponseMapper;
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -21,21 +28,25 @@ import java.util.UUID;
 public class AdminController {
 
     private final AdminService adminService;
-    private final OrderRepository orderRepository;
-    private final JobRepository jobRepository;
 
-    public AdminController(AdminService adminService, OrderRepository orderRepository, JobRepository jobRepository) {
+    public AdminController(AdminService adminService) {
         this.adminService = adminService;
-        this.orderRepository = orderRepository;
-        this.jobRepository = jobRepository;
     }
 
+    /**
+     * Newest first, one page at a time; see {@link PageResponses}.
+     */
     @GetMapping("/orders")
-    public List<OrderDtos.OrderResponse> listAllOrders() {
-        return adminService.listAllOrders()
-                .stream()
-                .map(o -> ResponseMapper.toDto(o, adminService.computeProgress(o)))
-                .toList();
+    public ResponseEntity<List<OrderDtos.OrderResponse>> listAllOrders(@RequestParam(required = false) OrderStatus status,
+                                                                       @RequestParam(required = false) Instant from,
+                                                                       @RequestParam(required = false) Instant to,
+                                                                       @RequestParam(required = false) String after,
+                                                                       @RequestParam(required = false) Integer limit) {
+        var page = adminService.listOrders(status, from, to, KeysetPager.Cursor.decode(after), limit);
+        Map<UUID, OrderDtos.Progress> progress = adminService.computeProgress(page.items());
+        return PageResponses.of(page.items().stream()
+                .map(o -> ResponseMapper.toDto(o, progress.get(o.getId())))
+                .toList(), page.next());
     }
 
     public record BulkOrdersRequest(List<UUID> orderIds) {}
@@ -45,10 +56,7 @@ public class AdminController {
         if (req == null || req.orderIds() == null || req.orderIds().isEmpty()) {
             throw ApiException.badRequest("orderIds is required.");
         }
-        return orderRepository.findAllById(req.orderIds())
-                .stream()
-                .map(o -> ResponseMapper.toDto(o, adminService.computeProgress(o)))
-                .toList();
+        return adminService.bulkOrders(req.orderIds());
     }
 
     @PostMapping("/orders/{orderId}")
@@ -63,8 +71,13 @@ public class AdminController {
     }
 
     @GetMapping("/drones")
-    public List<DroneDtos.DroneResponse> listDrones() {
-        return adminService.listDrones().stream().map(ResponseMapper::toDto).toList();
+    public ResponseEntity<List<DroneDtos.DroneResponse>> listDrones(@RequestParam(required = false) DroneStatus status,
+                                                                    @RequestParam(required = false) Instant from,
+                                                                    @RequestParam(required = false) Instant to,
+                                                                    @RequestParam(required = false) String after,
+                                                                    @RequestParam(required = false) Integer limit) {
+        var page = adminService.listDrones(status, from, to, KeysetPager.Cursor.decode(after), limit);
+        return PageResponses.of(page.items().stream().map(ResponseMapper::toDto).toList(), page.next());
     }
 
     public record SetDroneStatusRequest(DroneStatus status) {}
@@ -75,11 +88,40 @@ public class AdminController {
         return ResponseMapper.toDto(adminService.adminSetDroneStatus(droneId, req.status()));
     }
 
+    /**
+     * Flight history of a drone; defaults to the last hour.
+     */
+    @GetMapping("/drones/{droneId}/track")
+    public DroneDtos.TrackResponse droneTrack(@PathVariable UUID droneId,
+                                              @RequestParam(required = false) Instant from,
+                                              @RequestParam(required = false) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofHours(1));
+        return ResponseMapper.toDto(droneId, start, end, adminService.droneTrack(droneId, start, end));
+    }
+
     @GetMapping("/jobs")
-    public List<DroneDtos.JobResponse> listAllJobs() {
-        return jobRepository.findAll()
-                .stream()
-                .map(ResponseMapper::toDto)
-                .toList();
+    public ResponseEntity<List<DroneDtos.JobResponse>> listAllJobs(@RequestParam(required = false) JobStatus status,
+                                                                   @RequestParam(required = false) Instant from,
+                                                                   @RequestParam(required = false) Instant to,
+                                                                   @RequestParam(required = false) String after,
+                                                                   @RequestParam(required = false) Integer limit) {
+        var page = adminService.listJobs(status, from, to, KeysetPager.Cursor.decode(after), limit);
+        return PageResponses.of(page.items().stream().map(ResponseMapper::toDto).toList(), page.next());
+    }
+
+    /**
+     * Size and hit/miss/eviction counters of the order and job read caches, for sizing {@code app.read-cache}.
+     */
+    @GetMapping("/read-cache/stats")
+    public List<CacheDtos.CacheStatsResponse> readCacheStats() {
+        return adminService.readCacheStats().stream().map(ResponseMapper::toDto).toList();
+    }
+
+    @GetMapping("/dispatch/last-round")
+    public DispatchDtos.AssignmentRoundResponse lastAssignmentRound() {
+        var round = adminService.lastAssignmentRound();
+        if (round == null) throw ApiException.notFound("No assignment round has run yet.");
+        return ResponseMapper.toDto(round);
     }
 }
@@ -1,15 +1,14 @@
 package com.example.dronedelivery.api.controllers;
 
 import com.example.dronedelivery.api.dto.DroneDtos;
-import com.example.dronedelivery.domain.Job;
-import com.example.dronedelivery.domain.JobStatus;
-import com.example.dronedelivery.repo.OrderRepository;
 import com.example.dronedelivery.security.AuthContext;
 import com.example.dronedelivery.service.DroneService;
 import com.example.dronedelivery.service.ResponseMapper;
+import com.example.dronedelivery.service.VersionTag;
 import jakarta.validation.Valid;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.UUID;
 
@@ -19,11 +18,9 @@ import java.util.UUID;
 public class DroneController {
 
     private final DroneService droneService;
-    private final OrderRepository orderRepository;
 
-    public DroneController(DroneService droneService, OrderRepository orderRepository) {
+    public DroneController(DroneService droneService) {
         this.droneService = droneService;
-        this.orderRepository = orderRepository;
     }
 
     private UUID droneId() {
@@ -32,35 +29,7 @@ public class DroneController {
 
     @PostMapping("/self/heartbeat")
     public DroneDtos.HeartbeatResponse heartbeat(@Valid @RequestBody DroneDtos.HeartbeatRequest req) {
-        UUID droneId = droneId();
-        var d = droneService.heartbeat(droneId, req.location().lat(), req.location().lng());
-
-        Job job = droneService.getCurrentJobForDrone(droneId);
-        DroneDtos.Assignment assignment = null;
-        DroneDtos.NextAction nextAction = DroneDtos.NextAction.RESERVE_JOB;
-
-        if (job != null) {
-            var order = orderRepository.findById(job.getOrderId()).orElse(null);
-            assignment = new DroneDtos.Assignment(
-                    job.getId(),
-                    job.getStatus(),
-                    job.getType(),
-                    ResponseMapper.coordinates(job.getPickupLat(), job.getPickupLng()),
-                    ResponseMapper.coordinates(job.getDropoffLat(), job.getDropoffLng()),
-                    job.getOrderId(),
-                    order == null ? null : order.getStatus()
-            );
-            if (job.getStatus() == JobStatus.RESERVED) {
-                nextAction = DroneDtos.NextAction.PICKUP;
-            } else if (job.getStatus() == JobStatus.IN_PROGRESS) {
-                nextAction = DroneDtos.NextAction.DELIVER_OR_FAIL;
-            } else {
-                nextAction = DroneDtos.NextAction.WAIT;
-            }
-        }
-
-
-        return new DroneDtos.HeartbeatResponse(ResponseMapper.toDto(d), assignment, nextAction);
+        return droneService.heartbeat(droneId(), req.location().lat(), req.location().lng());
     }
 
     @PostMapping("/self/broken")
@@ -75,21 +44,16 @@ public class DroneController {
         return ResponseMapper.toDto(droneService.droneMarkFixed(droneId));
     }
 
+    /**
+     * Answers {@code 304 Not Modified} to an {@code If-None-Match} with the current ETag without loading the job.
+     */
     @GetMapping("/self/job")
-    public DroneDtos.Assignment currentAssignment() {
+    public DroneDtos.Assignment currentAssignment(WebRequest request) {
         UUID droneId = droneId();
-        Job job = droneService.getCurrentJobForDrone(droneId);
-        if (job == null) return null;
-
-        var order = orderRepository.findById(job.getOrderId()).orElse(null);
-        return new DroneDtos.Assignment(
-                job.getId(),
-                job.getStatus(),
-                job.getType(),
-                ResponseMapper.coordinates(job.getPickupLat(), job.getPickupLng()),
-                ResponseMapper.coordinates(job.getDropoffLat(), job.getDropoffLng()),
-                job.getOrderId(),
-                order.getStatus()
-        );
+        VersionTag tag = droneService.getCurrentAssignmentVersion(droneId);
+        if (request.checkNotModified(tag.etag())) {
+            return null;
+        }
+        return droneService.getCurrentAssignment(droneId, tag);
     }
 }
@@ -2,14 +2,16 @@ package com.example.dronedelivery.api.controllers;
 
 import com.example.dronedelivery.api.dto.DroneDtos;
 import com.example.dronedelivery.domain.Job;
-import com.example.dronedelivery.domain.JobStatus;
-import com.example.dronedelivery.repo.JobRepository;
 import com.example.dronedelivery.security.AuthContext;
+import com.example.dronedelivery.service.ApiException;
 import com.example.dronedelivery.service.DroneService;
+import com.example.dronedelivery.service.KeysetPager;
 import com.example.dronedelivery.service.ResponseMapper;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,23 +21,39 @@ import java.util.UUID;
 public class DroneJobsController {
 
     private final DroneService droneService;
-    private final JobRepository jobRepository;
 
-    public DroneJobsController(DroneService droneService, JobRepository jobRepository) {
+    public DroneJobsController(DroneService droneService) {
         this.droneService = droneService;
-        this.jobRepository = jobRepository;
     }
 
     private UUID droneId() {
         return AuthContext.actorId();
     }
 
+    /**
+     * Oldest first, one page at a time; see {@link PageResponses}.
+     */
     @GetMapping("/open")
-    public List<DroneDtos.JobResponse> listOpenJobs() {
-        return jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.OPEN)
-                .stream()
-                .map(ResponseMapper::toDto)
-                .toList();
+    public ResponseEntity<List<DroneDtos.JobResponse>> listOpenJobs(@RequestParam(required = false) Instant from,
+                                                                    @RequestParam(required = false) Instant to,
+                                                                    @RequestParam(required = false) String after,
+                                                                    @RequestParam(required = false) Integer limit) {
+        var page = droneService.listOpenJobs(from, to, KeysetPager.Cursor.decode(after), limit);
+        return PageResponses.of(page.items().stream().map(ResponseMapper::toDto).toList(), page.next());
+    }
+
+    /**
+     * {@code ?near=self}: the open jobs closest to the caller's last reported position, closest first, with their
+     * distance. {@code limit} defaults like a page size; {@code radiusMeters} is unbounded by default.
+     */
+    @GetMapping(value = "/open", params = "near")
+    public List<DroneDtos.NearbyJobResponse> listNearestOpenJobs(@RequestParam String near,
+                                                                 @RequestParam(required = false) Integer limit,
+                                                                 @RequestParam(required = false) Double radiusMeters) {
+        if (!"self".equals(near)) {
+            throw ApiException.badRequest("near must be 'self'.");
+        }
+        return droneService.nearestOpenJobs(droneId(), limit, radiusMeters);
     }
 
     @PostMapping("/{jobId}/reserve")
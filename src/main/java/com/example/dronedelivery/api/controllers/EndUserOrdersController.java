@@ -1,14 +1,24 @@
 package com.example.dronedelivery.api.controllers;
 
 import com.example.dronedelivery.api.dto.OrderDtos;
+import com.example.dronedelivery.domain.OrderStatus;
 import com.example.dronedelivery.security.AuthContext;
 import com.example.dronedelivery.service.EndUserService;
+import com.example.dronedelivery.service.KeysetPager;
+import com.example.dronedelivery.service.OrderTracker;
 import com.example.dronedelivery.service.ResponseMapper;
+import com.example.dronedelivery.service.VersionTag;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -17,9 +27,11 @@ import java.util.UUID;
 public class EndUserOrdersController {
 
     private final EndUserService endUserService;
+    private final OrderTracker orderTracker;
 
-    public EndUserOrdersController(EndUserService endUserService) {
+    public EndUserOrdersController(EndUserService endUserService, OrderTracker orderTracker) {
         this.endUserService = endUserService;
+        this.orderTracker = orderTracker;
     }
 
     @PostMapping
@@ -40,19 +52,51 @@ public class EndUserOrdersController {
         return ResponseMapper.toDto(order, endUserService.computeProgress(order));
     }
 
+    /**
+     * Newest first, one page at a time; see {@link PageResponses}.
+     */
     @GetMapping
-    public List<OrderDtos.OrderResponse> listMine() {
+    public ResponseEntity<List<OrderDtos.OrderResponse>> listMine(@RequestParam(required = false) OrderStatus status,
+                                                                  @RequestParam(required = false) Instant from,
+                                                                  @RequestParam(required = false) Instant to,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(required = false) Integer limit) {
         UUID endUserId = AuthContext.actorId();
-        return endUserService.listOrdersForEndUser(endUserId)
-                .stream()
-                .map(o -> ResponseMapper.toDto(o, endUserService.computeProgress(o)))
-                .toList();
+        var page = endUserService.listOrdersForEndUser(endUserId, status, from, to, KeysetPager.Cursor.decode(after), limit);
+        Map<UUID, OrderDtos.Progress> progress = endUserService.computeProgress(page.items());
+        return PageResponses.of(page.items().stream()
+                .map(o -> ResponseMapper.toDto(o, progress.get(o.getId())))
+                .toList(), page.next());
     }
 
+    /**
+     * Server-sent events for all of the caller's unfinished orders: an {@code order} event with the full order on
+     * connect and on every change, and a {@code progress} event when only the drone's position and ETA moved.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMine() {
+        return orderTracker.watchUser(AuthContext.actorId());
+    }
+
+    /**
+     * Like {@link #streamMine()} for one order; the stream ends once the order is delivered, failed or canceled.
+     */
+    @GetMapping(value = "/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOne(@PathVariable UUID orderId) {
+        UUID endUserId = AuthContext.actorId();
+        return orderTracker.watchOrder(endUserService.getOrderViewForEndUser(endUserId, orderId));
+    }
+
+    /**
+     * Answers {@code 304 Not Modified} to an {@code If-None-Match} with the current ETag without loading the order.
+     */
     @GetMapping("/{orderId}")
-    public OrderDtos.OrderResponse getMine(@PathVariable UUID orderId) {
+    public OrderDtos.OrderResponse getMine(@PathVariable UUID orderId, WebRequest request) {
         UUID endUserId = AuthContext.actorId();
-        var order = endUserService.getOrderForEndUser(endUserId, orderId);
-        return ResponseMapper.toDto(order, endUserService.computeProgress(order));
+        VersionTag tag = endUserService.getOrderVersionForEndUser(endUserId, orderId);
+        if (request.checkNotModified(tag.etag())) {
+            return null;
+        }
+        return endUserService.getOrderViewForEndUser(endUserId, orderId, tag);
     }
 }
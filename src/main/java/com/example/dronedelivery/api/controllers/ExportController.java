@@ -0,0 +1,59 @@
+package com.example.dronedelivery.api.controllers;
+
+import com.example.dronedelivery.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Streaming exports for reconciliation: every order or job created in {@code [from, to)}, oldest first, as NDJSON
+ * ({@code format=ndjson}, the default) or CSV with a header row ({@code format=csv}).
+ */
+@RestController
+@RequestMapping("/admin/export")
+@PreAuthorize("hasRole('ADMIN')")
+public class ExportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/orders")
+    public void exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                             @RequestParam(required = false) Instant from,
+                             @RequestParam(required = false) Instant to,
+                             HttpServletResponse response) throws IOException {
+        ExportService.Format f = ExportService.Format.parse(format);
+        prepare(response, f, "orders");
+        exportService.exportOrders(f, from, to, response.getOutputStream());
+    }
+
+    @GetMapping("/jobs")
+    public void exportJobs(@RequestParam(defaultValue = "ndjson") String format,
+                           @RequestParam(required = false) Instant from,
+                           @RequestParam(required = false) Instant to,
+                           HttpServletResponse response) throws IOException {
+        ExportService.Format f = ExportService.Format.parse(format);
+        prepare(response, f, "jobs");
+        exportService.exportJobs(f, from, to, response.getOutputStream());
+    }
+
+    private static void prepare(HttpServletResponse response, ExportService.Format format, String name) {
+        boolean csv = format == ExportService.Format.CSV;
+        response.setContentType(csv ? CSV : NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + (csv ? ".csv\"" : ".ndjson\""));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.dronedelivery.api.controllers;
+
+import com.example.dronedelivery.service.GatewayTelemetryService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/gateway")
+@PreAuthorize("hasRole('GATEWAY')")
+public class GatewayController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final GatewayTelemetryService telemetryService;
+
+    public GatewayController(GatewayTelemetryService telemetryService) {
+        this.telemetryService = telemetryService;
+    }
+
+    /**
+     * Heartbeats for many drones in one request. The body is streamed in and the assignment deltas are streamed back
+     * as NDJSON while it is being read; drones whose assignment is unchanged get no line.
+     */
+    @PostMapping(value = "/telemetry", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public void telemetry(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        telemetryService.ingest(request.getInputStream(), response.getOutputStream());
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.dronedelivery.api.controllers;
+
+import com.example.dronedelivery.service.KeysetPager;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * List endpoints keep returning a plain JSON array; the cursor of the next page, if any, goes in a response header and
+ * is passed back as the {@code after} query parameter.
+ */
+final class PageResponses {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PageResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(List<T> items, KeysetPager.Cursor next) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (next != null) {
+            response.header(NEXT_CURSOR_HEADER, next.encode());
+        }
+        return response.body(items);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dronedelivery.api.dto;
+
+public class CacheDtos {
+
+    public record CacheStatsResponse(
+            String name,
+            int size,
+            int maxSize,
+            long hits,
+            long misses,
+            double hitRate,
+            long evictions,
+            long expirations,
+            long invalidations
+    ) {}
+}
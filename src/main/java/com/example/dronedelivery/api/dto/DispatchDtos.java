@@ -0,0 +1,32 @@
+package com.example.dronedelivery.api.dto;
+
+import com.example.dronedelivery.service.AssignmentMode;
+
+import java.time.Instant;
+import java.util.List;
+
+public class DispatchDtos {
+
+    public record AssignmentRoundResponse(
+            AssignmentMode mode,
+            int openJobs,
+            int availableDrones,
+            int planned,
+            int assigned,
+            int lostRaces,
+            double plannedDistanceMeters,
+            Double greedyDistanceMeters,
+            long durationMillis,
+            Instant completedAt,
+            List<PartitionTimingResponse> partitions
+    ) {}
+
+    public record PartitionTimingResponse(
+            String cell,
+            int jobs,
+            int drones,
+            int assigned,
+            int deferred,
+            long durationMicros
+    ) {}
+}
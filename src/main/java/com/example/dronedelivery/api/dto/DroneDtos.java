@@ -7,6 +7,7 @@ import com.example.dronedelivery.domain.JobType;
 import com.example.dronedelivery.domain.OrderStatus;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 public class DroneDtos {
@@ -24,6 +25,30 @@ public class DroneDtos {
             Coordinates location
     ) {}
 
+    /**
+     * One line of a gateway telemetry stream.
+     *
+     * @param jobId     the job the drone is currently working on as far as the gateway knows, if any
+     * @param jobStatus that job's status as far as the gateway knows
+     */
+    public record TelemetryReport(
+            UUID droneId,
+            Coordinates location,
+            UUID jobId,
+            JobStatus jobStatus
+    ) {}
+
+    /**
+     * Sent back for a {@link TelemetryReport} whose assignment differs from what the gateway reported, or that could
+     * not be processed ({@code error} set).
+     */
+    public record TelemetryDelta(
+            UUID droneId,
+            Assignment assignment,
+            NextAction nextAction,
+            String error
+    ) {}
+
     public enum NextAction {
         RESERVE_JOB,
         PICKUP,
@@ -37,6 +62,31 @@ public class DroneDtos {
             NextAction nextAction
     ) {}
 
+    public enum CommandType {
+        /**
+         * New or updated delivery job.
+         */
+        ASSIGN,
+        /**
+         * New or updated handoff job: pick the goods up from a broken drone.
+         */
+        HANDOFF,
+        /**
+         * No current job.
+         */
+        CLEAR
+    }
+
+    /**
+     * Pushed over the drone's WebSocket session whenever its assignment changes. Always carries the full current
+     * assignment, so a drone only needs the latest command.
+     */
+    public record DroneCommand(
+            CommandType type,
+            Assignment assignment,
+            NextAction nextAction
+    ) {}
+
     public record Assignment(
             UUID jobId,
             JobStatus jobStatus,
@@ -47,6 +97,23 @@ public class DroneDtos {
             OrderStatus orderStatus
     ) {}
 
+    public record TrackPoint(
+            Instant at,
+            double lat,
+            double lng
+    ) {}
+
+    /**
+     * @param truncated the range held more points than the server returns at once; narrow it to see the rest
+     */
+    public record TrackResponse(
+            UUID droneId,
+            Instant from,
+            Instant to,
+            List<TrackPoint> points,
+            boolean truncated
+    ) {}
+
     public record JobResponse(
             UUID id,
             UUID orderId,
@@ -64,6 +131,14 @@ public class DroneDtos {
     ) {
     }
 
+    /**
+     * @param distanceMeters from the drone's last reported position to the job's pickup
+     */
+    public record NearbyJobResponse(
+            JobResponse job,
+            double distanceMeters
+    ) {}
+
     public record ReserveJobResponse(
             UUID jobId,
             JobStatus status,
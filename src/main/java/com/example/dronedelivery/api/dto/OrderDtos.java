@@ -30,6 +30,14 @@ public class OrderDtos {
             Integer etaSecondsApprox
     ) {}
 
+    /**
+     * Pushed on an order's event stream when only the assigned drone's position (and so the ETA) changed.
+     */
+    public record ProgressUpdate(
+            UUID orderId,
+            Progress progress
+    ) {}
+
     public record AdminUpdateOrderRequest(
             @Valid Coordinates origin,
             @Valid Coordinates destination
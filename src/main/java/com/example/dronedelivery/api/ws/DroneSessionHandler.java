@@ -0,0 +1,87 @@
+package com.example.dronedelivery.api.ws;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.example.dronedelivery.security.JwtHandshakeInterceptor;
+import com.example.dronedelivery.service.ApiException;
+import com.example.dronedelivery.service.DroneService;
+import com.example.dronedelivery.service.DroneSessionRegistry;
+import com.example.dronedelivery.service.ResponseMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * {@code /ws/drone}: a drone sends the same body as {@code POST /drone/self/heartbeat} for every position update and
+ * receives a {@link DroneDtos.DroneCommand} whenever its assignment changes.
+ */
+@Component
+public class DroneSessionHandler extends TextWebSocketHandler {
+
+    private static final CloseStatus BAD_TELEMETRY = CloseStatus.BAD_DATA.withReason("Expected {\"location\":{\"lat\":..,\"lng\":..}}.");
+
+    private final DroneService droneService;
+    private final DroneSessionRegistry registry;
+    private final ObjectReader telemetryReader;
+    private final int maxMessageBytes;
+
+    public DroneSessionHandler(
+            DroneService droneService,
+            DroneSessionRegistry registry,
+            ObjectMapper objectMapper,
+            @Value("${app.websocket.max-message-bytes:8192}") int maxMessageBytes
+    ) {
+        this.droneService = droneService;
+        this.registry = registry;
+        this.telemetryReader = objectMapper.readerFor(DroneDtos.HeartbeatRequest.class);
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        registry.register(droneId(session), session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        DroneDtos.HeartbeatRequest req;
+        try {
+            req = telemetryReader.readValue(message.getPayload());
+        } catch (JsonProcessingException ex) {
+            session.close(BAD_TELEMETRY);
+            return;
+        }
+        if (req.location() == null || req.location().lat() == null || req.location().lng() == null) {
+            session.close(BAD_TELEMETRY);
+            return;
+        }
+
+        UUID droneId = droneId(session);
+        DroneDtos.HeartbeatResponse response;
+        try {
+            response = droneService.heartbeat(droneId, req.location().lat(), req.location().lng());
+        } catch (ApiException ex) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(ex.getMessage()));
+            return;
+        }
+        registry.send(droneId, ResponseMapper.toCommand(response.assignment(), response.nextAction()));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        registry.unregister(droneId(session), session);
+    }
+
+    private static UUID droneId(WebSocketSession session) {
+        return (UUID) session.getAttributes().get(JwtHandshakeInterceptor.DRONE_ID);
+    }
+}
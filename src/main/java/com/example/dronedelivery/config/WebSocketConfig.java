@@ -0,0 +1,27 @@
+package com.example.dronedelivery.config;
+
+import com.example.dronedelivery.api.ws.DroneSessionHandler;
+import com.example.dronedelivery.security.JwtHandshakeInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final DroneSessionHandler droneSessionHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+
+    public WebSocketConfig(DroneSessionHandler droneSessionHandler, JwtHandshakeInterceptor jwtHandshakeInterceptor) {
+        this.droneSessionHandler = droneSessionHandler;
+        this.jwtHandshakeInterceptor = jwtHandshakeInterceptor;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(droneSessionHandler, "/ws/drone")
+                .addInterceptors(jwtHandshakeInterceptor);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.dronedelivery.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A finished {@link Job} moved out of the hot {@code job} table by the archiver. Rows are written with SQL, column for
+ * column, and never change afterwards.
+ */
+@Entity
+@Table(name = "job_archive", indexes = @Index(name = "idx_job_archive_order", columnList = "orderId"))
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedJob {
+
+    @Id
+    private UUID id;
+
+    private long version;
+
+    private UUID orderId;
+
+    @Enumerated(EnumType.STRING)
+    private JobType type;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status;
+
+    private double pickupLat;
+
+    private double pickupLng;
+
+    private double dropoffLat;
+
+    private double dropoffLng;
+
+    private UUID assignedDroneId;
+
+    private UUID excludedDroneId;
+
+    private Instant reservedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private Instant failedAt;
+
+    private Instant createdAt;
+
+    private Instant archivedAt;
+}
@@ -0,0 +1,45 @@
+package com.example.dronedelivery.domain;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A finished {@link DeliveryOrder} moved out of the hot {@code delivery_order} table together with its jobs.
+ */
+@Entity
+@Table(name = "delivery_order_archive")
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ArchivedOrder {
+
+    @Id
+    private UUID id;
+
+    private long version;
+
+    private UUID createdByEndUserId;
+
+    private double originLat;
+
+    private double originLng;
+
+    private double destinationLat;
+
+    private double destinationLng;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private UUID currentJobId;
+
+    private Instant createdAt;
+
+    private Instant archivedAt;
+}
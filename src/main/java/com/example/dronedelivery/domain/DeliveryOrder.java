@@ -4,19 +4,29 @@ import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_delivery_order_created", columnList = "createdAt, id"),
+        @Index(name = "idx_delivery_order_status_created", columnList = "status, createdAt, id"),
+        @Index(name = "idx_delivery_order_end_user_created", columnList = "createdByEndUserId, createdAt, id")
+})
 @Data
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class DeliveryOrder {
+public class DeliveryOrder implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
     private UUID id;
 
+    private transient boolean persisted;
+
+    @Version
+    private long version;
+
     private UUID createdByEndUserId;
 
     private double originLat;
@@ -35,6 +45,7 @@ public class DeliveryOrder {
     private Instant createdAt = Instant.now();
 
     public DeliveryOrder(UUID createdByEndUserId, double originLat, double originLng, double destinationLat, double destinationLng) {
+        this.id = UuidV7.next();
         this.createdByEndUserId = createdByEndUserId;
         this.originLat = originLat;
         this.originLng = originLng;
@@ -53,4 +64,15 @@ public class DeliveryOrder {
         this.destinationLat = lat;
         this.destinationLng = lng;
     }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
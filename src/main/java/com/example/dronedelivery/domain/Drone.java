@@ -4,20 +4,32 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Position columns are mostly written in batches by {@code DronePositions}; dynamic updates keep unrelated saves of a
+ * stale entity from overwriting them.
+ */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_drone_created", columnList = "createdAt, id"),
+        @Index(name = "idx_drone_status_created", columnList = "status, createdAt, id")
+})
+@DynamicUpdate
 @Data
 @Slf4j
 @NoArgsConstructor(access = lombok.AccessLevel.PROTECTED)
-public class Drone {
+public class Drone implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
     private UUID id;
 
+    private transient boolean persisted;
+
     private String name;
 
     @Enumerated(EnumType.STRING)
@@ -30,12 +42,27 @@ public class Drone {
 
     private UUID currentJobId;
 
+    private Instant createdAt = Instant.now();
+
     public Drone(String name) {
+        this.id = UuidV7.next();
         this.name = name;
+        this.createdAt = Instant.now();
     }
 
     public void setLastHeartbeatAt(Instant lastHeartbeatAt) {
         this.lastHeartbeatAt = lastHeartbeatAt;
         log.debug("Received heartbeat for droneId {}, Heartbeat TS: {}", id, lastHeartbeatAt);
     }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
@@ -1,26 +1,41 @@
 package com.example.dronedelivery.domain;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.util.UUID;
 
 @Entity
 @Data
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class EndUser {
+public class EndUser implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
     private UUID id;
 
+    private transient boolean persisted;
+
     private String name;
 
     public EndUser(String name) {
+        this.id = UuidV7.next();
         this.name = name;
     }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
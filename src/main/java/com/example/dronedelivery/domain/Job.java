@@ -4,19 +4,30 @@ import jakarta.persistence.*;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_job_created", columnList = "createdAt, id"),
+        @Index(name = "idx_job_status_created", columnList = "status, createdAt, id"),
+        @Index(name = "idx_job_order", columnList = "orderId")
+})
 @Data
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-public class Job {
+public class Job implements Persistable<UUID> {
 
     @Id
-    @GeneratedValue
     private UUID id;
 
+    /**
+     * Ids are assigned on construction ({@link UuidV7}), so whether {@code save} persists or merges is decided by this
+     * flag instead of a null id; the other entities do the same.
+     */
+    private transient boolean persisted;
+
     @Version
     private long version;
 
@@ -51,6 +62,7 @@ public class Job {
     private Instant createdAt = Instant.now();
 
     public Job(UUID orderId, JobType type, double pickupLat, double pickupLng, double dropoffLat, double dropoffLng, UUID excludedDroneId) {
+        this.id = UuidV7.next();
         this.orderId = orderId;
         this.type = type;
         this.pickupLat = pickupLat;
@@ -71,4 +83,15 @@ public class Job {
         this.dropoffLat = lat;
         this.dropoffLng = lng;
     }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
 }
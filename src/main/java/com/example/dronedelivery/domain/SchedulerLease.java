@@ -0,0 +1,31 @@
+package com.example.dronedelivery.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One row per scheduled task that must run on a single node. Written through {@code LeaseJdbcRepository}; the entity
+ * only exists so the table is part of the schema.
+ */
+@Entity
+@Data
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SchedulerLease {
+
+    @Id
+    private String name;
+
+    private String owner;
+
+    /**
+     * Fencing token: incremented every time the lease changes hands, never when it is renewed.
+     */
+    private long token;
+
+    private Instant expiresAt;
+}
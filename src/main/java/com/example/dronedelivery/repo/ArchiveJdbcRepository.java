@@ -0,0 +1,90 @@
+package com.example.dronedelivery.repo;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves finished orders and all their jobs from the hot tables to {@code delivery_order_archive} and
+ * {@code job_archive}, with set-based INSERT ... SELECT and DELETE statements. Callers are expected to run
+ * {@link #findArchivable} and {@link #move} inside one transaction.
+ */
+@Repository
+public class ArchiveJdbcRepository {
+
+    private static final String FIND_ARCHIVABLE = """
+            SELECT o.id
+              FROM delivery_order o
+             WHERE o.status IN ('DELIVERED', 'FAILED', 'CANCELED') AND o.created_at < :before
+               AND NOT EXISTS (SELECT 1 FROM job j
+                                WHERE j.order_id = o.id AND j.status NOT IN ('COMPLETED', 'FAILED', 'CANCELED'))
+             ORDER BY o.created_at, o.id
+             FETCH FIRST :limit ROWS ONLY
+            """;
+
+    private static final String COPY_JOBS = """
+            INSERT INTO job_archive (id, version, order_id, type, status, pickup_lat, pickup_lng, dropoff_lat, dropoff_lng,
+                                     assigned_drone_id, excluded_drone_id, reserved_at, started_at, completed_at, failed_at,
+                                     created_at, archived_at)
+            SELECT id, version, order_id, type, status, pickup_lat, pickup_lng, dropoff_lat, dropoff_lng,
+                   assigned_drone_id, excluded_drone_id, reserved_at, started_at, completed_at, failed_at,
+                   created_at, :archivedAt
+              FROM job
+             WHERE order_id IN (:orderIds)
+            """;
+
+    private static final String COPY_ORDERS = """
+            INSERT INTO delivery_order_archive (id, version, created_by_end_user_id, origin_lat, origin_lng,
+                                                destination_lat, destination_lng, status, current_job_id, created_at,
+                                                archived_at)
+            SELECT id, version, created_by_end_user_id, origin_lat, origin_lng,
+                   destination_lat, destination_lng, status, current_job_id, created_at, :archivedAt
+              FROM delivery_order
+             WHERE id IN (:orderIds)
+            """;
+
+    private static final String DELETE_JOBS = "DELETE FROM job WHERE order_id IN (:orderIds)";
+
+    private static final String DELETE_ORDERS = "DELETE FROM delivery_order WHERE id IN (:orderIds)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ArchiveJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Oldest finished orders created before {@code before} whose jobs are all finished too.
+     */
+    public List<UUID> findArchivable(Instant before, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", Timestamp.from(before))
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(FIND_ARCHIVABLE, params, UUID.class);
+    }
+
+    /**
+     * Copies the orders and their jobs to the archive tables, then deletes them from the hot ones.
+     *
+     * @return number of jobs moved
+     */
+    public int move(Collection<UUID> orderIds, Instant archivedAt) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("orderIds", orderIds)
+                .addValue("archivedAt", Timestamp.from(archivedAt));
+        int jobs = jdbcTemplate.update(COPY_JOBS, params);
+        jdbcTemplate.update(COPY_ORDERS, params);
+        jdbcTemplate.update(DELETE_JOBS, params);
+        jdbcTemplate.update(DELETE_ORDERS, params);
+        return jobs;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.dronedelivery.repo;
+
+import com.example.dronedelivery.domain.ArchivedJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface ArchivedJobRepository extends JpaRepository<ArchivedJob, UUID> {
+}
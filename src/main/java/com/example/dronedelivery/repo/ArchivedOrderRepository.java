@@ -0,0 +1,24 @@
+package com.example.dronedelivery.repo;
+
+import com.example.dronedelivery.domain.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, UUID> {
+
+    /**
+     * {@link OrderRepository#findVersionView} of an archived order. No drone moves a finished order's progress, so the
+     * drone columns are always null.
+     */
+    @Query("""
+            select o.createdByEndUserId as endUserId, o.version as orderVersion, j.version as jobVersion
+              from ArchivedOrder o
+              left join ArchivedJob j on j.id = o.currentJobId
+             where o.id = :orderId
+            """)
+    Optional<OrderRepository.OrderVersionView> findVersionView(@Param("orderId") UUID orderId);
+}
@@ -0,0 +1,118 @@
+package com.example.dronedelivery.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Set-based conditional writes for committing a whole assignment round in a few JDBC batches.
+ * Each statement carries its own guard, so the per-row update count says whether that row won the race. Drivers that
+ * report {@link Statement#SUCCESS_NO_INFO} instead of a count get the row read back, which the transaction has locked.
+ * Callers are expected to run these inside one transaction.
+ */
+@Repository
+public class AssignmentJdbcRepository {
+
+    public record Pair(UUID jobId, UUID droneId) {}
+
+    private static final String RESERVE_JOB = """
+            UPDATE job
+               SET status = 'RESERVED', assigned_drone_id = ?, reserved_at = ?, version = version + 1
+             WHERE id = ? AND status = 'OPEN' AND (excluded_drone_id IS NULL OR excluded_drone_id <> ?)
+            """;
+
+    private static final String CLAIM_DRONE = """
+            UPDATE drone
+               SET current_job_id = ?
+             WHERE id = ? AND current_job_id IS NULL AND status IN ('ACTIVE', 'FIXED')
+               AND last_lat IS NOT NULL AND last_lng IS NOT NULL
+            """;
+
+    private static final String REOPEN_JOB = """
+            UPDATE job
+               SET status = 'OPEN', assigned_drone_id = NULL, reserved_at = NULL, version = version + 1
+             WHERE id = ? AND status = 'RESERVED' AND assigned_drone_id = ?
+            """;
+
+    private static final String JOB_RESERVED = """
+            SELECT COUNT(*) FROM job WHERE id = ? AND status = 'RESERVED' AND assigned_drone_id = ?
+            """;
+
+    private static final String DRONE_CLAIMED = """
+            SELECT COUNT(*) FROM drone WHERE id = ? AND current_job_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AssignmentJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * OPEN -> RESERVED for each pair, skipping jobs that are no longer open or exclude that drone.
+     */
+    public boolean[] reserveJobs(List<Pair> pairs, Instant reservedAt) {
+        if (pairs.isEmpty()) {
+            return new boolean[0];
+        }
+        Timestamp ts = Timestamp.from(reservedAt);
+        return won(jdbcTemplate.batchUpdate(RESERVE_JOB, pairs, pairs.size(), (ps, p) -> {
+            ps.setObject(1, p.droneId());
+            ps.setTimestamp(2, ts);
+            ps.setObject(3, p.jobId());
+            ps.setObject(4, p.droneId());
+        }), pairs, p -> isSet(JOB_RESERVED, p.jobId(), p.droneId()));
+    }
+
+    /**
+     * Points each drone at its job, skipping drones that are broken or already busy.
+     */
+    public boolean[] claimDrones(List<Pair> pairs) {
+        if (pairs.isEmpty()) {
+            return new boolean[0];
+        }
+        return won(jdbcTemplate.batchUpdate(CLAIM_DRONE, pairs, pairs.size(), (ps, p) -> {
+            ps.setObject(1, p.jobId());
+            ps.setObject(2, p.droneId());
+        }), pairs, p -> isSet(DRONE_CLAIMED, p.droneId(), p.jobId()));
+    }
+
+    /**
+     * Undoes {@link #reserveJobs} for pairs whose drone could not be claimed.
+     */
+    public void reopenJobs(List<Pair> pairs) {
+        if (pairs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(REOPEN_JOB, pairs, pairs.size(), (ps, p) -> {
+            ps.setObject(1, p.jobId());
+            ps.setObject(2, p.droneId());
+        });
+    }
+
+    /**
+     * Only jobs that were OPEN and drones that were free are written, so finding the new values means this round won.
+     */
+    private static boolean[] won(int[][] counts, List<Pair> pairs, Predicate<Pair> written) {
+        boolean[] won = new boolean[pairs.size()];
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                won[i] = count == Statement.SUCCESS_NO_INFO ? written.test(pairs.get(i)) : count == 1;
+                i++;
+            }
+        }
+        return won;
+    }
+
+    private boolean isSet(String sql, UUID id, UUID value) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id, value);
+        return count != null && count > 0;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.dronedelivery.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batched position writes for buffered heartbeats. A row is only overwritten by a newer heartbeat, so flushes from
+ * several nodes can interleave in any order.
+ */
+@Repository
+public class DronePositionJdbcRepository {
+
+    public record PositionUpdate(UUID droneId, double lat, double lng, Instant at) {}
+
+    private static final String UPDATE_POSITION = """
+            UPDATE drone
+               SET last_lat = ?, last_lng = ?, last_heartbeat_at = ?
+             WHERE id = ? AND (last_heartbeat_at IS NULL OR last_heartbeat_at < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DronePositionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void updatePositions(List<PositionUpdate> updates) {
+        if (updates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_POSITION, updates, updates.size(), (ps, u) -> {
+            Timestamp at = Timestamp.from(u.at());
+            ps.setDouble(1, u.lat());
+            ps.setDouble(2, u.lng());
+            ps.setTimestamp(3, at);
+            ps.setObject(4, u.droneId());
+            ps.setTimestamp(5, at);
+        });
+    }
+}
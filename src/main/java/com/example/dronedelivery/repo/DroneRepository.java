@@ -1,18 +1,119 @@
 package com.example.dronedelivery.repo;
 
-import com.example.dronedelivery.domain.Drone;
-import com.example.dronedelivery.domain.DroneStatus;
+import com.example.dronedelivery.domain.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface DroneRepository extends JpaRepository<Drone, UUID> {
+public interface DroneRepository extends JpaRepository<Drone, UUID>, JpaSpecificationExecutor<Drone> {
     Optional<Drone> findByName(String name);
 
     List<Drone> findByStatusIn(Collection<DroneStatus> statuses);
 
     List<Drone> findByStatusInAndCurrentJobIdIsNull(Collection<DroneStatus> statuses);
+
+    /**
+     * Everything a heartbeat response needs, in one joined read. Job and order columns are null when the drone has no
+     * current job.
+     */
+    @Query("""
+            select d.id as droneId, d.name as name, d.status as status, d.currentJobId as currentJobId,
+                   j.id as jobId, j.status as jobStatus, j.type as jobType,
+                   j.pickupLat as pickupLat, j.pickupLng as pickupLng, j.dropoffLat as dropoffLat, j.dropoffLng as dropoffLng,
+                   j.orderId as orderId, o.status as orderStatus, j.version as jobVersion, o.version as orderVersion
+              from Drone d
+              left join Job j on j.id = d.currentJobId
+              left join DeliveryOrder o on o.id = j.orderId
+             where d.id = :droneId
+            """)
+    Optional<HeartbeatView> findHeartbeatView(@Param("droneId") UUID droneId);
+
+    @Query("""
+            select d.id as droneId, d.name as name, d.status as status, d.currentJobId as currentJobId,
+                   j.id as jobId, j.status as jobStatus, j.type as jobType,
+                   j.pickupLat as pickupLat, j.pickupLng as pickupLng, j.dropoffLat as dropoffLat, j.dropoffLng as dropoffLng,
+                   j.orderId as orderId, o.status as orderStatus, j.version as jobVersion, o.version as orderVersion
+              from Drone d
+              left join Job j on j.id = d.currentJobId
+              left join DeliveryOrder o on o.id = j.orderId
+             where d.id in :droneIds
+            """)
+    List<HeartbeatView> findHeartbeatViews(@Param("droneIds") Collection<UUID> droneIds);
+
+    /**
+     * Versions behind {@code GET /drone/self/job}, for its ETag. Job and order columns are null when the drone has no
+     * current job.
+     */
+    @Query("""
+            select d.id as droneId, d.currentJobId as jobId, j.version as jobVersion, o.version as orderVersion
+              from Drone d
+              left join Job j on j.id = d.currentJobId
+              left join DeliveryOrder o on o.id = j.orderId
+             where d.id = :droneId
+            """)
+    Optional<AssignmentVersionView> findAssignmentVersionView(@Param("droneId") UUID droneId);
+
+    @Query("""
+            select d.id as droneId, d.currentJobId as jobId, j.version as jobVersion, o.version as orderVersion
+              from Drone d
+              left join Job j on j.id = d.currentJobId
+              left join DeliveryOrder o on o.id = j.orderId
+             where d.id in :droneIds
+            """)
+    List<AssignmentVersionView> findAssignmentVersionViews(@Param("droneIds") Collection<UUID> droneIds);
+
+    /**
+     * Points the drone at {@code jobId} in one guarded UPDATE, unless it is broken; see the transitions in
+     * {@link JobRepository}.
+     *
+     * @return the update count, 0 if the drone is missing or broken
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Drone d
+               set d.currentJobId = :jobId
+             where d.id = :droneId and d.status <> com.example.dronedelivery.domain.DroneStatus.BROKEN
+            """)
+    int assignJob(@Param("droneId") UUID droneId, @Param("jobId") UUID jobId);
+
+    /**
+     * Clears the drone's current job if it is still {@code jobId}.
+     *
+     * @return the update count, 0 if the drone moved on
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Drone d set d.currentJobId = null where d.id = :droneId and d.currentJobId = :jobId")
+    int releaseJob(@Param("droneId") UUID droneId, @Param("jobId") UUID jobId);
+
+    interface AssignmentVersionView {
+        UUID getDroneId();
+        UUID getJobId();
+        Long getJobVersion();
+        Long getOrderVersion();
+    }
+
+    interface HeartbeatView {
+        UUID getDroneId();
+        String getName();
+        DroneStatus getStatus();
+        UUID getCurrentJobId();
+        UUID getJobId();
+        JobStatus getJobStatus();
+        JobType getJobType();
+        Double getPickupLat();
+        Double getPickupLng();
+        Double getDropoffLat();
+        Double getDropoffLng();
+        UUID getOrderId();
+        OrderStatus getOrderStatus();
+        Long getJobVersion();
+        Long getOrderVersion();
+    }
 }
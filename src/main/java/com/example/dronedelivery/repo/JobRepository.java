@@ -2,13 +2,151 @@ package com.example.dronedelivery.repo;
 
 import com.example.dronedelivery.domain.Job;
 import com.example.dronedelivery.domain.JobStatus;
+import com.example.dronedelivery.domain.JobType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface JobRepository extends JpaRepository<Job, UUID> {
+public interface JobRepository extends JpaRepository<Job, UUID>, JpaSpecificationExecutor<Job> {
     List<Job> findByStatusOrderByCreatedAtAsc(JobStatus status);
     Optional<Job> findByOrderIdAndStatusIn(UUID orderId, List<JobStatus> statuses);
+
+    /**
+     * Cheap change detector for all jobs in a status: any insert, delete or versioned update moves one of the numbers.
+     */
+    @Query("select count(j) as jobs, coalesce(sum(j.version), 0L) as versionSum from Job j where j.status = :status")
+    StatusFingerprint fingerprint(@Param("status") JobStatus status);
+
+    /**
+     * Dropoff and assigned drone location of each job that has an assigned drone, for order progress.
+     */
+    @Query("""
+            select j.id as jobId, j.dropoffLat as dropoffLat, j.dropoffLng as dropoffLng,
+                   d.id as droneId, d.lastLat as droneLat, d.lastLng as droneLng, d.lastHeartbeatAt as lastHeartbeatAt
+              from Job j
+              join Drone d on d.id = j.assignedDroneId
+             where j.id in :jobIds
+            """)
+    List<ProgressView> findProgressViews(@Param("jobIds") Collection<UUID> jobIds);
+
+    /**
+     * Jobs created in {@code [from, to)}, oldest first, as unmanaged rows read through a forward-only cursor.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select j.id as id, j.orderId as orderId, j.type as type, j.status as status,
+                   j.pickupLat as pickupLat, j.pickupLng as pickupLng, j.dropoffLat as dropoffLat, j.dropoffLng as dropoffLng,
+                   j.assignedDroneId as assignedDroneId, j.excludedDroneId as excludedDroneId,
+                   j.reservedAt as reservedAt, j.startedAt as startedAt, j.completedAt as completedAt,
+                   j.failedAt as failedAt, j.createdAt as createdAt
+              from Job j
+             where j.createdAt >= :from and j.createdAt < :to
+             order by j.createdAt, j.id
+            """)
+    Stream<JobExportView> streamForExport(@Param("from") Instant from, @Param("to") Instant to);
+
+    /*
+     * Compare-and-set transitions: one guarded UPDATE, no read first. They return the update count, so 0 means the job
+     * is missing or not in the required state. The version is bumped like a versioned save would; pending changes are
+     * flushed before and managed entities cleared after, so later reads in the transaction see the new row.
+     */
+
+    /**
+     * OPEN -> RESERVED, unless the job excludes the drone.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Job j
+               set j.status = com.example.dronedelivery.domain.JobStatus.RESERVED, j.assignedDroneId = :droneId,
+                   j.reservedAt = :at, j.version = j.version + 1
+             where j.id = :jobId and j.status = com.example.dronedelivery.domain.JobStatus.OPEN
+               and (j.excludedDroneId is null or j.excludedDroneId <> :droneId)
+            """)
+    int reserve(@Param("jobId") UUID jobId, @Param("droneId") UUID droneId, @Param("at") Instant at);
+
+    /**
+     * RESERVED -> IN_PROGRESS, for the drone that reserved the job.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Job j
+               set j.status = com.example.dronedelivery.domain.JobStatus.IN_PROGRESS, j.startedAt = :at,
+                   j.version = j.version + 1
+             where j.id = :jobId and j.status = com.example.dronedelivery.domain.JobStatus.RESERVED
+               and j.assignedDroneId = :droneId
+            """)
+    int start(@Param("jobId") UUID jobId, @Param("droneId") UUID droneId, @Param("at") Instant at);
+
+    /**
+     * IN_PROGRESS -> COMPLETED, for the drone carrying the job.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Job j
+               set j.status = com.example.dronedelivery.domain.JobStatus.COMPLETED, j.completedAt = :at,
+                   j.version = j.version + 1
+             where j.id = :jobId and j.status = com.example.dronedelivery.domain.JobStatus.IN_PROGRESS
+               and j.assignedDroneId = :droneId
+            """)
+    int complete(@Param("jobId") UUID jobId, @Param("droneId") UUID droneId, @Param("at") Instant at);
+
+    /**
+     * IN_PROGRESS -> FAILED, for the drone carrying the job.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Job j
+               set j.status = com.example.dronedelivery.domain.JobStatus.FAILED, j.failedAt = :at,
+                   j.version = j.version + 1
+             where j.id = :jobId and j.status = com.example.dronedelivery.domain.JobStatus.IN_PROGRESS
+               and j.assignedDroneId = :droneId
+            """)
+    int fail(@Param("jobId") UUID jobId, @Param("droneId") UUID droneId, @Param("at") Instant at);
+
+    interface StatusFingerprint {
+        Long getJobs();
+
+        Long getVersionSum();
+    }
+
+    interface ProgressView {
+        UUID getJobId();
+        Double getDropoffLat();
+        Double getDropoffLng();
+        UUID getDroneId();
+        Double getDroneLat();
+        Double getDroneLng();
+        Instant getLastHeartbeatAt();
+    }
+
+    interface JobExportView {
+        UUID getId();
+        UUID getOrderId();
+        JobType getType();
+        JobStatus getStatus();
+        Double getPickupLat();
+        Double getPickupLng();
+        Double getDropoffLat();
+        Double getDropoffLng();
+        UUID getAssignedDroneId();
+        UUID getExcludedDroneId();
+        Instant getReservedAt();
+        Instant getStartedAt();
+        Instant getCompletedAt();
+        Instant getFailedAt();
+        Instant getCreatedAt();
+    }
 }
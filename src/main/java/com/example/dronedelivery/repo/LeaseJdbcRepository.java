@@ -0,0 +1,84 @@
+package com.example.dronedelivery.repo;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Conditional writes on {@code scheduler_lease}. Acquire and renew are the same statement: it succeeds when the caller
+ * already owns the row or the current owner let it expire, and bumps the fencing token only on a change of owner.
+ * Acquire and release commit on their own, even when called from inside a task's transaction.
+ */
+@Repository
+public class LeaseJdbcRepository {
+
+    private static final String TAKE = """
+            UPDATE scheduler_lease
+               SET token = CASE WHEN owner = ? THEN token ELSE token + 1 END, owner = ?, expires_at = ?
+             WHERE name = ? AND (owner = ? OR expires_at <= ?)
+            """;
+
+    private static final String CREATE = """
+            INSERT INTO scheduler_lease (name, owner, token, expires_at)
+            SELECT ?, ?, 1, ? WHERE NOT EXISTS (SELECT 1 FROM scheduler_lease WHERE name = ?)
+            """;
+
+    private static final String RELEASE = """
+            UPDATE scheduler_lease SET expires_at = ? WHERE name = ? AND owner = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LeaseJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Acquires or renews the lease until {@code expiresAt}.
+     *
+     * @return the fencing token, or empty while another owner holds an unexpired lease
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public OptionalLong tryAcquire(String name, String owner, Instant now, Instant expiresAt) {
+        int taken = jdbcTemplate.update(TAKE, owner, owner, Timestamp.from(expiresAt), name, owner, Timestamp.from(now));
+        if (taken == 0) {
+            try {
+                taken = jdbcTemplate.update(CREATE, name, owner, Timestamp.from(expiresAt), name);
+            } catch (DuplicateKeyException ex) {
+                // Another node created the row first.
+                return OptionalLong.empty();
+            }
+        }
+        if (taken == 0) {
+            return OptionalLong.empty();
+        }
+        List<Long> token = jdbcTemplate.queryForList(
+                "SELECT token FROM scheduler_lease WHERE name = ? AND owner = ?", Long.class, name, owner);
+        return token.isEmpty() ? OptionalLong.empty() : OptionalLong.of(token.get(0));
+    }
+
+    /**
+     * Lets the lease expire now so another node can take over without waiting for the TTL.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String name, String owner, Instant now) {
+        jdbcTemplate.update(RELEASE, Timestamp.from(now), name, owner);
+    }
+
+    /**
+     * Locks the lease row until the surrounding transaction ends and checks it has not changed hands since
+     * {@code token} was issued. While the lock is held no other node can take the lease over.
+     */
+    public boolean holdsFence(String name, long token) {
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT token FROM scheduler_lease WHERE name = ? FOR UPDATE", Long.class, name);
+        return !current.isEmpty() && current.get(0) == token;
+    }
+}
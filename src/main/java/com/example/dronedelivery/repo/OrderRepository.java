@@ -1,11 +1,86 @@
 package com.example.dronedelivery.repo;
 
 import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends JpaRepository<DeliveryOrder, UUID> {
-    List<DeliveryOrder> findByCreatedByEndUserIdOrderByCreatedAtDesc(UUID endUserId);
+public interface OrderRepository extends JpaRepository<DeliveryOrder, UUID>, JpaSpecificationExecutor<DeliveryOrder> {
+    List<DeliveryOrder> findByCreatedByEndUserIdAndStatusIn(UUID endUserId, Collection<OrderStatus> statuses);
+
+    /**
+     * Orders created in {@code [from, to)}, oldest first, as unmanaged rows read through a forward-only cursor.
+     * Must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select o.id as id, o.createdByEndUserId as createdByEndUserId, o.status as status, o.currentJobId as currentJobId,
+                   o.originLat as originLat, o.originLng as originLng,
+                   o.destinationLat as destinationLat, o.destinationLng as destinationLng, o.createdAt as createdAt
+              from DeliveryOrder o
+             where o.createdAt >= :from and o.createdAt < :to
+             order by o.createdAt, o.id
+            """)
+    Stream<OrderExportView> streamForExport(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Versions behind {@code GET /enduser/orders/{orderId}}, for its ETag: the order's, its current job's and the
+     * stored heartbeat time of the job's drone, which moves the progress. Job and drone columns may be null.
+     */
+    @Query("""
+            select o.createdByEndUserId as endUserId, o.version as orderVersion, j.version as jobVersion,
+                   d.id as droneId, d.lastHeartbeatAt as lastHeartbeatAt
+              from DeliveryOrder o
+              left join Job j on j.id = o.currentJobId
+              left join Drone d on d.id = j.assignedDroneId
+             where o.id = :orderId
+            """)
+    Optional<OrderVersionView> findVersionView(@Param("orderId") UUID orderId);
+
+    /**
+     * Moves the order of {@code jobId} to {@code status} in one guarded UPDATE, if that job is still the order's
+     * current one; see the transitions in {@link JobRepository}.
+     *
+     * @return the update count, 0 if the order moved on to another job
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update DeliveryOrder o
+               set o.status = :status, o.version = o.version + 1
+             where o.id = (select j.orderId from Job j where j.id = :jobId) and o.currentJobId = :jobId
+            """)
+    int moveWithJob(@Param("jobId") UUID jobId, @Param("status") OrderStatus status);
+
+    interface OrderVersionView {
+        UUID getEndUserId();
+        long getOrderVersion();
+        Long getJobVersion();
+        UUID getDroneId();
+        Instant getLastHeartbeatAt();
+    }
+
+    interface OrderExportView {
+        UUID getId();
+        UUID getCreatedByEndUserId();
+        OrderStatus getStatus();
+        UUID getCurrentJobId();
+        Double getOriginLat();
+        Double getOriginLng();
+        Double getDestinationLat();
+        Double getDestinationLng();
+        Instant getCreatedAt();
+    }
 }
@@ -3,5 +3,9 @@ package com.example.dronedelivery.security;
 public enum AuthRole {
     ADMIN,
     ENDUSER,
-    DRONE
+    DRONE,
+    /**
+     * Ground station relaying telemetry for many drones.
+     */
+    GATEWAY
 }
@@ -0,0 +1,64 @@
+package com.example.dronedelivery.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Lets a WebSocket upgrade through only with a valid drone JWT, taken from the {@code Authorization} header or, for
+ * clients that cannot set headers on the upgrade, the {@code access_token} query parameter. The drone id ends up in the
+ * session attributes under {@link #DRONE_ID}.
+ */
+@Component
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String DRONE_ID = "droneId";
+
+    private final JwtService jwtService;
+
+    public JwtHandshakeInterceptor(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        String token = token(request);
+        if (token != null) {
+            try {
+                Claims claims = jwtService.parseAndValidate(token);
+                String actorIdStr = claims.get("actorId", String.class);
+                if (AuthRole.DRONE.name().equals(claims.get("role", String.class)) && actorIdStr != null && !actorIdStr.isBlank()) {
+                    attributes.put(DRONE_ID, UUID.fromString(actorIdStr));
+                    return true;
+                }
+            } catch (Exception e) {
+                // Invalid token -> rejected below
+            }
+        }
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                               Exception exception) {
+    }
+
+    private static String token(ServerHttpRequest request) {
+        String auth = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (auth != null && auth.startsWith("Bearer ")) {
+            return auth.substring("Bearer ".length()).trim();
+        }
+        return UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("access_token");
+    }
+}
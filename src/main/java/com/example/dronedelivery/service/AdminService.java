@@ -6,10 +6,16 @@ import com.example.dronedelivery.repo.DroneRepository;
 import com.example.dronedelivery.repo.JobRepository;
 import com.example.dronedelivery.repo.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -20,10 +26,29 @@ public class AdminService {
     private final OrderRepository orderRepository;
     private final JobRepository jobRepository;
     private final DeliveryServiceHelper helper;
+    private final OpenJobQueue openJobQueue;
+    private final DronePositions dronePositions;
+    private final HeartbeatDeadlines heartbeatDeadlines;
+    private final TelemetryStore telemetryStore;
+    private final ApplicationEventPublisher events;
+    private final JobAssignmentScheduler jobAssignmentScheduler;
+    private final KeysetPager pager;
+    private final OrderReadModels readModels;
 
     @Transactional(readOnly = true)
-    public List<DeliveryOrder> listAllOrders() {
-        return orderRepository.findAll();
+    public KeysetPager.Page<DeliveryOrder> listOrders(OrderStatus status, Instant from, Instant to, KeysetPager.Cursor after, Integer limit) {
+        Specification<DeliveryOrder> filter = Specification.<DeliveryOrder>where(KeysetPager.equal("status", status))
+                .and(KeysetPager.createdBetween(from, to));
+        return pager.page(orderRepository, filter, after, limit, KeysetPager.Direction.NEWEST_FIRST,
+                o -> new KeysetPager.Cursor(o.getCreatedAt(), o.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPager.Page<Job> listJobs(JobStatus status, Instant from, Instant to, KeysetPager.Cursor after, Integer limit) {
+        Specification<Job> filter = Specification.<Job>where(KeysetPager.equal("status", status))
+                .and(KeysetPager.createdBetween(from, to));
+        return pager.page(jobRepository, filter, after, limit, KeysetPager.Direction.NEWEST_FIRST,
+                j -> new KeysetPager.Cursor(j.getCreatedAt(), j.getId()));
     }
 
     @Transactional
@@ -59,12 +84,21 @@ public class AdminService {
 
         jobRepository.save(currentJob);
         orderRepository.save(order);
+        openJobQueue.jobOpened(currentJob);
+        if (currentJob.getAssignedDroneId() != null) {
+            events.publishEvent(DroneAssignmentChanged.of(currentJob.getAssignedDroneId()));
+        }
+        events.publishEvent(JobChanged.of(currentJob.getId()));
+        events.publishEvent(OrderChanged.of(order.getId()));
         return order;
     }
 
     @Transactional(readOnly = true)
-    public List<Drone> listDrones() {
-        return droneRepository.findAll();
+    public KeysetPager.Page<Drone> listDrones(DroneStatus status, Instant from, Instant to, KeysetPager.Cursor after, Integer limit) {
+        Specification<Drone> filter = Specification.<Drone>where(KeysetPager.equal("status", status))
+                .and(KeysetPager.createdBetween(from, to));
+        return pager.page(droneRepository, filter, after, limit, KeysetPager.Direction.NEWEST_FIRST,
+                d -> new KeysetPager.Cursor(d.getCreatedAt(), d.getId()));
     }
 
     @Transactional
@@ -77,12 +111,44 @@ public class AdminService {
         } else {
             d.setStatus(status);
             droneRepository.save(d);
+            heartbeatDeadlines.arm(droneId, dronePositions.lastHeartbeatAt(d));
         }
         return d;
     }
 
+    public TelemetryStore.Track droneTrack(UUID droneId, Instant from, Instant to) {
+        if (from.isAfter(to)) {
+            throw ApiException.badRequest("from must not be after to.");
+        }
+        if (!droneRepository.existsById(droneId)) {
+            throw ApiException.notFound("Drone not found: " + droneId);
+        }
+        return telemetryStore.track(droneId, from, to);
+    }
+
     @Transactional(readOnly = true)
     public OrderDtos.Progress computeProgress(DeliveryOrder order) {
         return helper.computeProgress(order);
     }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, OrderDtos.Progress> computeProgress(Collection<DeliveryOrder> orders) {
+        return helper.computeProgress(orders);
+    }
+
+    /**
+     * Orders with progress, in the order asked for, from the {@link OrderReadModels} cache; unknown ids are left out.
+     */
+    public List<OrderDtos.OrderResponse> bulkOrders(Collection<UUID> orderIds) {
+        Map<UUID, OrderDtos.OrderResponse> found = readModels.orders(orderIds);
+        return helper.withProgress(orderIds.stream().distinct().map(found::get).filter(Objects::nonNull).toList());
+    }
+
+    public List<ReadThroughCache.Stats> readCacheStats() {
+        return readModels.stats();
+    }
+
+    public JobAssignmentScheduler.AssignmentRound lastAssignmentRound() {
+        return jobAssignmentScheduler.lastRound();
+    }
 }
@@ -0,0 +1,83 @@
+package com.example.dronedelivery.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Runs the {@link OrderArchive} on the node holding the archive lease: chunk after chunk, each in its own short
+ * transaction so locks are held briefly, until the backlog is cleared, {@code max-chunks-per-run} is reached or the run
+ * has taken {@code max-run-seconds}. The cap keeps a large backlog from holding a scheduling thread for long; the rest
+ * is picked up by the next run.
+ */
+@Component
+public class ArchiveScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveScheduler.class);
+
+    public static final String ARCHIVE_LEASE = "order-archive";
+
+    private final OrderArchive orderArchive;
+    private final SchedulerLeases leases;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration maxRun;
+
+    public ArchiveScheduler(
+            OrderArchive orderArchive,
+            SchedulerLeases leases,
+            @Value("${app.archive.enabled:true}") boolean enabled,
+            @Value("${app.archive.min-age-days:30}") long minAgeDays,
+            @Value("${app.archive.chunk-size:500}") int chunkSize,
+            @Value("${app.archive.max-chunks-per-run:100}") int maxChunksPerRun,
+            @Value("${app.archive.max-run-seconds:30}") long maxRunSeconds
+    ) {
+        this.orderArchive = orderArchive;
+        this.leases = leases;
+        this.enabled = enabled;
+        this.minAge = Duration.ofDays(minAgeDays);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.maxRun = Duration.ofSeconds(maxRunSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "#{${app.archive.interval-minutes:10} * 60000}",
+            initialDelayString = "#{${app.archive.interval-minutes:10} * 60000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        Optional<SchedulerLeases.Lease> lease = leases.current(ARCHIVE_LEASE);
+        if (lease.isEmpty()) {
+            return;
+        }
+        Instant before = Instant.now().minus(minAge);
+        long stopAt = System.nanoTime() + maxRun.toNanos();
+        int orders = 0;
+        int jobs = 0;
+        try {
+            for (int i = 0; i < maxChunksPerRun && System.nanoTime() - stopAt < 0; i++) {
+                OrderArchive.Chunk chunk = orderArchive.archiveChunk(lease.get(), before, chunkSize);
+                orders += chunk.orders();
+                jobs += chunk.jobs();
+                if (chunk.orders() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (SchedulerLeases.LeaseLostException ex) {
+            logger.info(ex.getMessage());
+        } catch (RuntimeException ex) {
+            logger.warn("Archiving stopped after {} order(s); the rest is retried next run.", orders, ex);
+        }
+        if (orders > 0) {
+            logger.info("Archived {} order(s) and {} job(s) created before {}.", orders, jobs, before);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.repo.AssignmentJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Writes a planned round in one transaction with batched conditional UPDATEs instead of a read-modify-save per pair.
+ * Jobs are updated before drones, in the same order as {@link DroneService#reserveJob}.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssignmentCommitter {
+
+    /**
+     * @param committed    pairs now RESERVED
+     * @param closedJobIds jobs that turned out not to be OPEN anymore
+     * @param lostDroneIds drones that turned out busy or broken; their jobs are still OPEN
+     */
+    public record Result(
+            List<AssignmentPlanner.PlannedAssignment> committed,
+            Set<UUID> closedJobIds,
+            Set<UUID> lostDroneIds
+    ) {}
+
+    private final AssignmentJdbcRepository assignmentJdbcRepository;
+    private final OpenJobQueue openJobQueue;
+    private final SchedulerLeases leases;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * @throws SchedulerLeases.LeaseLostException if another node took over dispatching; nothing is written
+     */
+    @Transactional
+    public Result commit(SchedulerLeases.Lease lease, List<AssignmentPlanner.PlannedAssignment> planned) {
+        leases.checkFence(lease);
+        List<AssignmentJdbcRepository.Pair> pairs = planned.stream()
+                .map(a -> new AssignmentJdbcRepository.Pair(a.jobId(), a.droneId()))
+                .toList();
+
+        boolean[] jobWon = assignmentJdbcRepository.reserveJobs(pairs, Instant.now());
+
+        List<Integer> reservedIdx = new ArrayList<>();
+        Set<UUID> closedJobIds = new HashSet<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            if (jobWon[i]) {
+                reservedIdx.add(i);
+            } else {
+                closedJobIds.add(pairs.get(i).jobId());
+            }
+        }
+        List<AssignmentJdbcRepository.Pair> reserved = reservedIdx.stream().map(pairs::get).toList();
+        boolean[] droneWon = assignmentJdbcRepository.claimDrones(reserved);
+
+        List<AssignmentPlanner.PlannedAssignment> committed = new ArrayList<>();
+        List<AssignmentJdbcRepository.Pair> reopen = new ArrayList<>();
+        Set<UUID> reopenedJobIds = new HashSet<>();
+        Set<UUID> lostDroneIds = new HashSet<>();
+        for (int k = 0; k < reserved.size(); k++) {
+            AssignmentPlanner.PlannedAssignment a = planned.get(reservedIdx.get(k));
+            if (droneWon[k]) {
+                committed.add(a);
+            } else {
+                reopen.add(reserved.get(k));
+                reopenedJobIds.add(a.jobId());
+                lostDroneIds.add(a.droneId());
+            }
+        }
+        assignmentJdbcRepository.reopenJobs(reopen);
+
+        Set<UUID> leftQueue = new HashSet<>(closedJobIds);
+        committed.forEach(a -> leftQueue.add(a.jobId()));
+        openJobQueue.jobsClosed(leftQueue);
+        // Reserved and reopened within this transaction: two version bumps, still OPEN.
+        openJobQueue.jobsVersionBumped(reopenedJobIds, 2);
+        if (!committed.isEmpty()) {
+            events.publishEvent(new DroneAssignmentChanged(committed.stream().map(AssignmentPlanner.PlannedAssignment::droneId).toList()));
+            events.publishEvent(new JobChanged(committed.stream().map(AssignmentPlanner.PlannedAssignment::jobId).toList()));
+        }
+
+        return new Result(committed, closedJobIds, lostDroneIds);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.dronedelivery.service;
+
+public enum AssignmentMode {
+    /**
+     * Oldest job first, each takes the closest free drone.
+     */
+    GREEDY,
+    /**
+     * Each tick is solved as a min-total-distance matching between open jobs and free drones.
+     */
+    OPTIMAL
+}
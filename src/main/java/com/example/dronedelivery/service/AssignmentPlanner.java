@@ -0,0 +1,360 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.Drone;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+/**
+ * Decides which free drone goes to which open job in one scheduler round. Pure planning: nothing is written here.
+ * <p>
+ * From {@code partition-min-drones} free drones on, the round is split into square cells of
+ * {@code partition-cell-degrees} and each cell is planned on its own on a ForkJoin pool. A cell only keeps a pair when
+ * the drone is closer than the job's nearest cell edge, i.e. no drone in another cell could have been closer. Every
+ * other job, and every drone left over, goes to one border pass over the whole area.
+ */
+@Component
+public class AssignmentPlanner {
+
+    public record PlannedAssignment(UUID jobId, UUID droneId, double distanceMeters) {}
+
+    /**
+     * @param cell     south-west corner of the cell as {@code "lat,lng"}, or {@code "border"} for the border pass
+     * @param deferred jobs handed on to the border pass
+     */
+    public record PartitionTiming(String cell, int jobs, int drones, int assigned, int deferred, long durationMicros) {}
+
+    /**
+     * @param greedyDistanceMeters what the greedy plan would have flown for the same round; null in greedy mode
+     * @param partitions           per-cell timings; empty when the round was not partitioned
+     */
+    public record Plan(
+            AssignmentMode mode,
+            List<PlannedAssignment> assignments,
+            double totalDistanceMeters,
+            Double greedyDistanceMeters,
+            List<PartitionTiming> partitions
+    ) {}
+
+    private static final double METERS_PER_DEGREE = GeoUtil.EARTH_RADIUS_M * Math.PI / 180;
+
+    /**
+     * Leaving a job waiting is priced well above any leg it could be given, so the solver only does it when the
+     * drones are genuinely needed elsewhere.
+     */
+    private static final double UNASSIGNED_COST_FACTOR = 10.0;
+
+    private final AssignmentMode mode;
+    private final Duration maxJobWait;
+    private final int hungarianMaxSize;
+    private final int auctionCandidatesPerJob;
+    private final double cellDegrees;
+    private final int partitionMinDrones;
+    private final ForkJoinPool pool;
+
+    public AssignmentPlanner(
+            @Value("${app.scheduler.assignment-mode:GREEDY}") AssignmentMode mode,
+            @Value("${app.scheduler.max-job-wait-seconds:120}") long maxJobWaitSeconds,
+            @Value("${app.scheduler.hungarian-max-size:200}") int hungarianMaxSize,
+            @Value("${app.scheduler.auction-candidates-per-job:8}") int auctionCandidatesPerJob,
+            @Value("${app.scheduler.partition-cell-degrees:0.5}") double cellDegrees,
+            @Value("${app.scheduler.partition-min-drones:2000}") int partitionMinDrones,
+            @Value("${app.scheduler.dispatch-parallelism:0}") int parallelism
+    ) {
+        this.mode = mode;
+        this.maxJobWait = Duration.ofSeconds(maxJobWaitSeconds);
+        this.hungarianMaxSize = hungarianMaxSize;
+        this.auctionCandidatesPerJob = auctionCandidatesPerJob;
+        this.cellDegrees = cellDegrees;
+        this.partitionMinDrones = partitionMinDrones;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public AssignmentMode mode() {
+        return mode;
+    }
+
+    /**
+     * @param openJobs oldest first
+     * @param drones   free drones with a known location
+     */
+    public Plan plan(List<OpenJob> openJobs, List<Drone> drones, Instant now) {
+        return plan(mode, openJobs, drones, now);
+    }
+
+    public Plan plan(AssignmentMode mode, List<OpenJob> openJobs, List<Drone> drones, Instant now) {
+        if (drones.size() >= partitionMinDrones) {
+            return planPartitioned(mode, openJobs, drones, now);
+        }
+        return planWhole(mode, openJobs, drones, now);
+    }
+
+    private Plan planWhole(AssignmentMode mode, List<OpenJob> openJobs, List<Drone> drones, Instant now) {
+        List<PlannedAssignment> assignments = assign(mode, openJobs, drones, now);
+        return new Plan(mode, assignments, totalMeters(assignments),
+                mode == AssignmentMode.GREEDY ? null : greedyMeters(openJobs, drones), List.of());
+    }
+
+    private List<PlannedAssignment> assign(AssignmentMode mode, List<OpenJob> openJobs, List<Drone> drones, Instant now) {
+        return mode == AssignmentMode.GREEDY ? greedy(openJobs, index(drones)) : optimal(openJobs, drones, now);
+    }
+
+    /**
+     * The greedy baseline of a round, always over all of its jobs and drones so partitioned and whole rounds compare
+     * against the same figure.
+     */
+    private static double greedyMeters(List<OpenJob> openJobs, List<Drone> drones) {
+        return totalMeters(greedy(openJobs, index(drones)));
+    }
+
+    private record Cell(long row, long col) {}
+
+    private record CellResult(List<PlannedAssignment> kept, PartitionTiming timing) {}
+
+    private Plan planPartitioned(AssignmentMode mode, List<OpenJob> openJobs, List<Drone> drones, Instant now) {
+        Map<Cell, List<OpenJob>> jobsByCell = new HashMap<>();
+        for (OpenJob job : openJobs) {
+            jobsByCell.computeIfAbsent(cellOf(job.pickupLat(), job.pickupLng()), c -> new ArrayList<>()).add(job);
+        }
+        Map<Cell, List<Drone>> dronesByCell = new HashMap<>();
+        for (Drone drone : drones) {
+            dronesByCell.computeIfAbsent(cellOf(drone.getLastLat(), drone.getLastLng()), c -> new ArrayList<>()).add(drone);
+        }
+
+        Future<Double> greedyMeters = mode == AssignmentMode.GREEDY
+                ? null
+                : pool.submit(() -> greedyMeters(openJobs, drones));
+        List<Callable<CellResult>> tasks = new ArrayList<>();
+        for (Map.Entry<Cell, List<OpenJob>> entry : jobsByCell.entrySet()) {
+            List<Drone> cellDrones = dronesByCell.get(entry.getKey());
+            if (cellDrones != null) {
+                tasks.add(() -> planCell(mode, entry.getKey(), entry.getValue(), cellDrones, now));
+            }
+        }
+
+        List<PlannedAssignment> assignments = new ArrayList<>();
+        List<PartitionTiming> timings = new ArrayList<>();
+        for (Future<CellResult> future : pool.invokeAll(tasks)) {
+            CellResult result = join(future);
+            assignments.addAll(result.kept());
+            timings.add(result.timing());
+        }
+
+        Set<UUID> takenJobs = new HashSet<>();
+        Set<UUID> takenDrones = new HashSet<>();
+        for (PlannedAssignment a : assignments) {
+            takenJobs.add(a.jobId());
+            takenDrones.add(a.droneId());
+        }
+        List<OpenJob> borderJobs = openJobs.stream().filter(j -> !takenJobs.contains(j.id())).toList();
+        List<Drone> borderDrones = drones.stream().filter(d -> !takenDrones.contains(d.getId())).toList();
+
+        long startedAt = System.nanoTime();
+        List<PlannedAssignment> border = assign(mode, borderJobs, borderDrones, now);
+        assignments.addAll(border);
+        timings.add(new PartitionTiming("border", borderJobs.size(), borderDrones.size(),
+                border.size(), 0, (System.nanoTime() - startedAt) / 1_000));
+
+        return new Plan(mode, assignments, totalMeters(assignments),
+                greedyMeters == null ? null : join(greedyMeters), timings);
+    }
+
+    private CellResult planCell(AssignmentMode mode, Cell cell, List<OpenJob> jobs, List<Drone> drones, Instant now) {
+        long startedAt = System.nanoTime();
+        List<PlannedAssignment> planned = assign(mode, jobs, drones, now);
+
+        Map<UUID, OpenJob> jobsById = new HashMap<>();
+        jobs.forEach(j -> jobsById.put(j.id(), j));
+        List<PlannedAssignment> kept = new ArrayList<>();
+        for (PlannedAssignment a : planned) {
+            OpenJob job = jobsById.get(a.jobId());
+            if (a.distanceMeters() <= metersToCellEdge(cell, job.pickupLat(), job.pickupLng())) {
+                kept.add(a);
+            }
+        }
+
+        String label = String.format(Locale.ROOT, "%.3f,%.3f", cell.row() * cellDegrees, cell.col() * cellDegrees);
+        PartitionTiming timing = new PartitionTiming(label, jobs.size(), drones.size(), kept.size(),
+                jobs.size() - kept.size(), (System.nanoTime() - startedAt) / 1_000);
+        return new CellResult(kept, timing);
+    }
+
+    private Cell cellOf(double lat, double lng) {
+        return new Cell((long) Math.floor(lat / cellDegrees), (long) Math.floor(lng / cellDegrees));
+    }
+
+    /**
+     * Lower bound on the distance from a point to anywhere outside its cell. East/west uses the cell's latitude closest
+     * to a pole, where meridians are nearest to each other.
+     */
+    private double metersToCellEdge(Cell cell, double lat, double lng) {
+        double south = cell.row() * cellDegrees;
+        double west = cell.col() * cellDegrees;
+        double latDegrees = Math.min(lat - south, south + cellDegrees - lat);
+        double lngDegrees = Math.min(lng - west, west + cellDegrees - lng);
+        double poleward = Math.min(90, Math.max(Math.abs(south), Math.abs(south + cellDegrees)));
+        return Math.min(latDegrees, lngDegrees * Math.cos(Math.toRadians(poleward))) * METERS_PER_DEGREE;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while planning a partition.", ex);
+        } catch (ExecutionException ex) {
+            throw ex.getCause() instanceof RuntimeException re ? re : new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private List<PlannedAssignment> optimal(List<OpenJob> openJobs, List<Drone> drones, Instant now) {
+        GeoIndex<UUID> index = index(drones);
+        Instant overdueBefore = now.minus(maxJobWait);
+
+        List<OpenJob> overdue = new ArrayList<>();
+        List<OpenJob> waiting = new ArrayList<>();
+        for (OpenJob job : openJobs) {
+            (job.createdAt().isBefore(overdueBefore) ? overdue : waiting).add(job);
+        }
+
+        // Jobs that already waited too long are not traded off against the fleet total: they get their closest drone.
+        List<PlannedAssignment> result = new ArrayList<>(greedy(overdue, index));
+
+        List<Drone> free = drones.stream().filter(d -> index.contains(d.getId())).toList();
+        if (!waiting.isEmpty() && !free.isEmpty()) {
+            List<PlannedAssignment> matched = waiting.size() <= hungarianMaxSize && free.size() <= hungarianMaxSize
+                    ? matchDense(waiting, free)
+                    : matchSparse(waiting, index);
+            Set<UUID> matchedJobs = new HashSet<>();
+            for (PlannedAssignment a : matched) {
+                index.remove(a.droneId());
+                matchedJobs.add(a.jobId());
+            }
+            result.addAll(matched);
+
+            // Sparse candidates can leave a job without options while far drones are still free.
+            List<OpenJob> leftOver = waiting.stream().filter(j -> !matchedJobs.contains(j.id())).toList();
+            result.addAll(greedy(leftOver, index));
+        }
+        return result;
+    }
+
+    private List<PlannedAssignment> matchDense(List<OpenJob> jobs, List<Drone> drones) {
+        double[][] cost = new double[jobs.size()][drones.size()];
+        for (int i = 0; i < jobs.size(); i++) {
+            OpenJob job = jobs.get(i);
+            for (int j = 0; j < drones.size(); j++) {
+                Drone drone = drones.get(j);
+                cost[i][j] = drone.getId().equals(job.excludedDroneId())
+                        ? HungarianSolver.INFEASIBLE
+                        : distanceMeters(job, drone);
+            }
+        }
+        int[] match = HungarianSolver.solve(cost);
+
+        List<PlannedAssignment> result = new ArrayList<>();
+        for (int i = 0; i < match.length; i++) {
+            if (match[i] >= 0) {
+                result.add(new PlannedAssignment(jobs.get(i).id(), drones.get(match[i]).getId(), cost[i][match[i]]));
+            }
+        }
+        return result;
+    }
+
+    private List<PlannedAssignment> matchSparse(List<OpenJob> jobs, GeoIndex<UUID> index) {
+        Map<UUID, Integer> columns = new HashMap<>();
+        List<UUID> droneIds = new ArrayList<>();
+        int[][] candidateCols = new int[jobs.size()][];
+        double[][] candidateCosts = new double[jobs.size()][];
+        double[][] exactMeters = new double[jobs.size()][];
+        double maxCost = 0;
+
+        for (int i = 0; i < jobs.size(); i++) {
+            OpenJob job = jobs.get(i);
+            List<GeoIndex.Hit<UUID>> hits = index.nearest(
+                    job.pickupLat(), job.pickupLng(),
+                    auctionCandidatesPerJob, Double.POSITIVE_INFINITY, notExcluded(job)
+            );
+            candidateCols[i] = new int[hits.size()];
+            candidateCosts[i] = new double[hits.size()];
+            exactMeters[i] = new double[hits.size()];
+            for (int k = 0; k < hits.size(); k++) {
+                GeoIndex.Hit<UUID> hit = hits.get(k);
+                Integer col = columns.get(hit.key());
+                if (col == null) {
+                    col = droneIds.size();
+                    columns.put(hit.key(), col);
+                    droneIds.add(hit.key());
+                }
+                candidateCols[i][k] = col;
+                // The auction is exact on integral costs; whole meters are precise enough for dispatch.
+                candidateCosts[i][k] = Math.rint(hit.distanceMeters());
+                exactMeters[i][k] = hit.distanceMeters();
+                maxCost = Math.max(maxCost, candidateCosts[i][k]);
+            }
+        }
+
+        int[] match = AuctionSolver.solve(droneIds.size(), candidateCols, candidateCosts, UNASSIGNED_COST_FACTOR * maxCost + 1);
+
+        List<PlannedAssignment> result = new ArrayList<>();
+        for (int i = 0; i < match.length; i++) {
+            if (match[i] < 0) {
+                continue;
+            }
+            for (int k = 0; k < candidateCols[i].length; k++) {
+                if (candidateCols[i][k] == match[i]) {
+                    result.add(new PlannedAssignment(jobs.get(i).id(), droneIds.get(match[i]), exactMeters[i][k]));
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<PlannedAssignment> greedy(List<OpenJob> jobs, GeoIndex<UUID> index) {
+        List<PlannedAssignment> result = new ArrayList<>();
+        for (OpenJob job : jobs) {
+            if (index.isEmpty()) {
+                break;
+            }
+            GeoIndex.Hit<UUID> closest = index.nearest(job.pickupLat(), job.pickupLng(), notExcluded(job));
+            if (closest == null) {
+                continue;
+            }
+            index.remove(closest.key());
+            result.add(new PlannedAssignment(job.id(), closest.key(), closest.distanceMeters()));
+        }
+        return result;
+    }
+
+    private static GeoIndex<UUID> index(List<Drone> drones) {
+        return GeoIndex.build(drones, Drone::getId, Drone::getLastLat, Drone::getLastLng);
+    }
+
+    private static Predicate<UUID> notExcluded(OpenJob job) {
+        UUID excludedDroneId = job.excludedDroneId();
+        return droneId -> excludedDroneId == null || !excludedDroneId.equals(droneId);
+    }
+
+    private static double totalMeters(List<PlannedAssignment> assignments) {
+        return assignments.stream().mapToDouble(PlannedAssignment::distanceMeters).sum();
+    }
+
+    private static double distanceMeters(OpenJob job, Drone drone) {
+        return GeoUtil.haversineMeters(job.pickupLat(), job.pickupLng(), drone.getLastLat(), drone.getLastLng());
+    }
+}
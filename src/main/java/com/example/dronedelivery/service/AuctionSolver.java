@@ -0,0 +1,121 @@
+package com.example.dronedelivery.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Min-cost assignment on a sparse candidate graph using the auction algorithm with epsilon-scaling.
+ * <p>
+ * Rows may stay unmatched at {@code unassignedCost} and columns may stay unused for free. To keep epsilon-scaling
+ * valid, the problem is turned into a symmetric one: every row gets a private "unassigned" object, and every column
+ * gets a slack bidder that either takes the column itself (column unused) or takes the "unassigned" object of a row
+ * that could have used that column (that row got a real column). The graph stays as sparse as the input.
+ * With integral costs the final epsilon of {@code 1 / (bidders + 1)} yields an optimal matching.
+ */
+public final class AuctionSolver {
+
+    private static final double SCALING_FACTOR = 4.0;
+
+    private AuctionSolver() {}
+
+    /**
+     * @param cols           number of real columns
+     * @param candidateCols  per row, the distinct columns it may be matched to
+     * @param candidateCosts per row, the cost of each candidate column (same order as {@code candidateCols})
+     * @param unassignedCost cost of leaving a row unmatched; should exceed every candidate cost
+     * @return for each row the matched column, or -1 when the row is left unmatched
+     */
+    public static int[] solve(int cols, int[][] candidateCols, double[][] candidateCosts, double unassignedCost) {
+        int rows = candidateCols.length;
+        int bidders = rows + cols;
+
+        // Bidders: [0, rows) real rows, [rows, rows + cols) column slack.
+        // Objects: [0, cols) real columns, [cols, cols + rows) "row unassigned".
+        int[][] options = new int[bidders][];
+        double[][] optionCosts = new double[bidders][];
+
+        int[] columnDegree = new int[cols];
+        for (int i = 0; i < rows; i++) {
+            int[] cands = candidateCols[i];
+            options[i] = Arrays.copyOf(cands, cands.length + 1);
+            optionCosts[i] = Arrays.copyOf(candidateCosts[i], cands.length + 1);
+            options[i][cands.length] = cols + i;
+            optionCosts[i][cands.length] = unassignedCost;
+            for (int j : cands) {
+                columnDegree[j]++;
+            }
+        }
+        int[] fill = new int[cols];
+        for (int j = 0; j < cols; j++) {
+            options[rows + j] = new int[columnDegree[j] + 1];
+            optionCosts[rows + j] = new double[columnDegree[j] + 1];
+            options[rows + j][0] = j;
+            fill[j] = 1;
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j : candidateCols[i]) {
+                options[rows + j][fill[j]++] = cols + i;
+            }
+        }
+
+        double[] price = new double[bidders];
+        int[] owner = new int[bidders];
+        int[] assigned = new int[bidders];
+
+        double finalEpsilon = 1.0 / (bidders + 1);
+        double epsilon = Math.max(unassignedCost / SCALING_FACTOR, finalEpsilon);
+        ArrayDeque<Integer> waiting = new ArrayDeque<>(bidders);
+
+        while (true) {
+            Arrays.fill(owner, -1);
+            Arrays.fill(assigned, -1);
+            for (int b = 0; b < bidders; b++) {
+                waiting.add(b);
+            }
+
+            while (!waiting.isEmpty()) {
+                int b = waiting.poll();
+
+                int bestObject = -1;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                double secondValue = Double.NEGATIVE_INFINITY;
+                int[] objs = options[b];
+                double[] costs = optionCosts[b];
+                for (int k = 0; k < objs.length; k++) {
+                    double value = -costs[k] - price[objs[k]];
+                    if (value > bestValue) {
+                        secondValue = bestValue;
+                        bestValue = value;
+                        bestObject = objs[k];
+                    } else if (value > secondValue) {
+                        secondValue = value;
+                    }
+                }
+
+                double increment = secondValue == Double.NEGATIVE_INFINITY
+                        ? epsilon
+                        : bestValue - secondValue + epsilon;
+                price[bestObject] += increment;
+
+                int previous = owner[bestObject];
+                owner[bestObject] = b;
+                assigned[b] = bestObject;
+                if (previous >= 0) {
+                    assigned[previous] = -1;
+                    waiting.add(previous);
+                }
+            }
+
+            if (epsilon <= finalEpsilon) {
+                break;
+            }
+            epsilon = Math.max(epsilon / SCALING_FACTOR, finalEpsilon);
+        }
+
+        int[] result = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            result[i] = assigned[i] < cols ? assigned[i] : -1;
+        }
+        return result;
+    }
+}
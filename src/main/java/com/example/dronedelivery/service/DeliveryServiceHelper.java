@@ -6,16 +6,26 @@ import com.example.dronedelivery.repo.DroneRepository;
 import com.example.dronedelivery.repo.JobRepository;
 import com.example.dronedelivery.repo.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
 public class DeliveryServiceHelper {
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryServiceHelper.class);
 
     /**
      * Conservative average speed for ETA calculation.
@@ -26,22 +36,83 @@ public class DeliveryServiceHelper {
     private final DroneRepository droneRepository;
     private final OrderRepository orderRepository;
     private final JobRepository jobRepository;
+    private final OpenJobQueue openJobQueue;
+    private final DronePositions dronePositions;
+    private final HeartbeatDeadlines heartbeatDeadlines;
+    private final SchedulerLeases leases;
+    private final ApplicationEventPublisher events;
+
+    /**
+     * Most job ids per progress query, to keep the {@code IN} list within what databases accept.
+     */
+    private static final int PROGRESS_BATCH_SIZE = 1000;
 
     @Transactional(readOnly = true)
     public OrderDtos.Progress computeProgress(DeliveryOrder order) {
-        if (order.getCurrentJobId() == null) return null;
-        Job job = jobRepository.findById(order.getCurrentJobId()).orElse(null);
-        if (job == null) return null;
+        return computeProgress(List.of(order)).get(order.getId());
+    }
+
+    /**
+     * Progress of each order, keyed by order id; orders without an assigned drone that has reported a location are
+     * left out. Reads the current jobs and their drones with one query per {@value #PROGRESS_BATCH_SIZE} orders.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, OrderDtos.Progress> computeProgress(Collection<DeliveryOrder> orders) {
+        Map<UUID, OrderDtos.Progress> byJob = progressByJob(orders.stream().map(DeliveryOrder::getCurrentJobId).toList());
+        Map<UUID, OrderDtos.Progress> byOrder = new HashMap<>();
+        for (DeliveryOrder order : orders) {
+            OrderDtos.Progress progress = order.getCurrentJobId() == null ? null : byJob.get(order.getCurrentJobId());
+            if (progress != null) {
+                byOrder.put(order.getId(), progress);
+            }
+        }
+        return byOrder;
+    }
+
+    /**
+     * Like {@link #computeProgress(Collection)} for cached read models: the same orders, in the same order, with their
+     * progress filled in.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderDtos.OrderResponse> withProgress(Collection<OrderDtos.OrderResponse> orders) {
+        Map<UUID, OrderDtos.Progress> byJob = progressByJob(orders.stream().map(OrderDtos.OrderResponse::currentJobId).toList());
+        return orders.stream()
+                .map(o -> ResponseMapper.withProgress(o, o.currentJobId() == null ? null : byJob.get(o.currentJobId())))
+                .toList();
+    }
+
+    private Map<UUID, OrderDtos.Progress> progressByJob(Collection<UUID> currentJobIds) {
+        List<UUID> jobIds = currentJobIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        if (jobIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, OrderDtos.Progress> byJob = new HashMap<>();
+        for (int from = 0; from < jobIds.size(); from += PROGRESS_BATCH_SIZE) {
+            List<UUID> batch = jobIds.subList(from, Math.min(jobIds.size(), from + PROGRESS_BATCH_SIZE));
+            for (JobRepository.ProgressView v : jobRepository.findProgressViews(batch)) {
+                OrderDtos.Progress progress = progress(v);
+                if (progress != null) {
+                    byJob.put(v.getJobId(), progress);
+                }
+            }
+        }
+        return byJob;
+    }
 
-        if (job.getAssignedDroneId() == null) return null;
-        Drone d = droneRepository.findById(job.getAssignedDroneId()).orElse(null);
-        if (d == null || d.getLastLat() == null || d.getLastLng() == null) return null;
+    private OrderDtos.Progress progress(JobRepository.ProgressView v) {
+        DronePositions.Position d = dronePositions.position(v.getDroneId(), v.getDroneLat(), v.getDroneLng(), v.getLastHeartbeatAt());
+        return d == null ? null : progress(d, v.getDropoffLat(), v.getDropoffLng());
+    }
 
-        double remainingMeters = GeoUtil.haversineMeters(d.getLastLat(), d.getLastLng(), job.getDropoffLat(), job.getDropoffLng());
+    static OrderDtos.Progress progress(DronePositions.Position drone, double dropoffLat, double dropoffLng) {
+        double remainingMeters = GeoUtil.haversineMeters(drone.lat(), drone.lng(), dropoffLat, dropoffLng);
         int etaSec = (int) Math.round(remainingMeters / AVERAGE_SPEED_M_PER_S);
 
         return new OrderDtos.Progress(
-                ResponseMapper.coordinates(d.getLastLat(), d.getLastLng()),
+                ResponseMapper.coordinates(drone.lat(), drone.lng()),
                 Math.max(0, etaSec)
         );
     }
@@ -54,19 +125,6 @@ public class DeliveryServiceHelper {
                 .orElseThrow(() -> ApiException.notFound("Current job not found: " + order.getCurrentJobId()));
     }
 
-    public Job requireInProgressJobForDrone(UUID droneId, UUID jobId) {
-        Job job = jobRepository.findById(jobId)
-                .orElseThrow(() -> ApiException.notFound("Job not found: " + jobId));
-
-        if (!droneId.equals(job.getAssignedDroneId())) {
-            throw ApiException.forbidden("You can only update jobs assigned to your drone.");
-        }
-        if (job.getStatus() != JobStatus.IN_PROGRESS) {
-            throw ApiException.badRequest("Job must be IN_PROGRESS to mark delivered/failed.");
-        }
-        return job;
-    }
-
     /**
      * Implements the additional rule:
      * "Any time a drone is broken it will stop and put up a job for its goods to be picked up by a different drone
@@ -74,7 +132,11 @@ public class DeliveryServiceHelper {
      */
     @Transactional
     public void markDroneBrokenInternal(Drone d) {
+        // The handoff job starts where the drone last reported, which may not be flushed yet.
+        dronePositions.overlay(d);
         d.setStatus(DroneStatus.BROKEN);
+        heartbeatDeadlines.disarm(d.getId());
+        events.publishEvent(DroneAssignmentChanged.of(d.getId()));
 
         UUID currentJobId = d.getCurrentJobId();
         if (currentJobId == null) {
@@ -114,6 +176,10 @@ public class DeliveryServiceHelper {
             order.setStatus(OrderStatus.HANDOFF_REQUESTED);
             order.setCurrentJobId(handoff.getId());
             orderRepository.save(order);
+            openJobQueue.jobOpened(handoff);
+            events.publishEvent(DispatchEvent.handoffOpened(handoff.getId()));
+            events.publishEvent(JobChanged.of(currentJob.getId()));
+            events.publishEvent(OrderChanged.of(order.getId()));
 
             // Drone no longer holds an active job (it stopped)
             d.setCurrentJobId(null);
@@ -121,4 +187,48 @@ public class DeliveryServiceHelper {
 
         droneRepository.save(d);
     }
+
+    /**
+     * Marks the given drones BROKEN if they are still ACTIVE or FIXED and their latest heartbeat is past the timeout;
+     * the others get their deadline re-armed.
+     *
+     * @param droneIds drones whose {@link HeartbeatDeadlines} deadline expired
+     * @return number of drones marked broken
+     */
+    @Transactional
+    public int markStaleDronesBroken(SchedulerLeases.Lease lease, Collection<UUID> droneIds) {
+        leases.checkFence(lease);
+        return markStaleDronesBroken(droneRepository.findAllById(droneIds));
+    }
+
+    /**
+     * Checks every ACTIVE or FIXED drone and arms the deadlines of those still alive. Covers drones that were never
+     * armed on this node, e.g. after a restart or when the lease moves here from another node.
+     *
+     * @return number of drones marked broken
+     */
+    @Transactional
+    public int sweepStaleDrones(SchedulerLeases.Lease lease) {
+        leases.checkFence(lease);
+        return markStaleDronesBroken(droneRepository.findByStatusIn(EnumSet.of(DroneStatus.ACTIVE, DroneStatus.FIXED)));
+    }
+
+    private int markStaleDronesBroken(List<Drone> drones) {
+        Instant now = Instant.now();
+        int markedBroken = 0;
+        for (Drone drone : drones) {
+            if (drone.getStatus() != DroneStatus.ACTIVE && drone.getStatus() != DroneStatus.FIXED) {
+                continue;
+            }
+            Instant lastHeartbeatAt = dronePositions.lastHeartbeatAt(drone);
+            if (heartbeatDeadlines.isStale(lastHeartbeatAt, now)) {
+                markDroneBrokenInternal(drone);
+                markedBroken++;
+                logger.warn("Drone {} marked BROKEN due to stale heartbeat (last={}).", drone.getId(), lastHeartbeatAt);
+            } else {
+                heartbeatDeadlines.arm(drone.getId(), lastHeartbeatAt);
+            }
+        }
+        return markedBroken;
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.dronedelivery.service;
+
+import java.util.UUID;
+
+/**
+ * Published when something happened that may let the dispatcher assign a job right away.
+ */
+public record DispatchEvent(Reason reason, UUID subjectId) {
+
+    public enum Reason {
+        JOB_OPENED,
+        HANDOFF_OPENED,
+        DRONE_FREED
+    }
+
+    public static DispatchEvent jobOpened(UUID jobId) {
+        return new DispatchEvent(Reason.JOB_OPENED, jobId);
+    }
+
+    public static DispatchEvent handoffOpened(UUID jobId) {
+        return new DispatchEvent(Reason.HANDOFF_OPENED, jobId);
+    }
+
+    public static DispatchEvent droneFreed(UUID droneId) {
+        return new DispatchEvent(Reason.DRONE_FREED, droneId);
+    }
+}
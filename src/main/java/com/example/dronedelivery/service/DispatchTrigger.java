@@ -0,0 +1,125 @@
+package com.example.dronedelivery.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drives {@link JobAssignmentScheduler#assignJobsToClosestDrones()}.
+ * <p>
+ * Domain events (job opened, handoff opened, drone freed) are coalesced: the first one schedules a round after
+ * {@code assignment-debounce-millis}, and everything arriving until that round starts rides along with it.
+ * A periodic tick stays as a safety net; it runs every {@code assignment-interval-seconds} while nothing is waiting and
+ * tightens towards {@code assignment-min-interval-millis} as the backlog of open jobs grows.
+ * All rounds run on one thread, so they never overlap.
+ * <p>
+ * Only the node holding the {@link JobAssignmentScheduler#ASSIGNMENT_LEASE} lease dispatches. The others keep polling
+ * at {@code assignment-min-interval-millis} so they take over soon after the leader's lease expires.
+ */
+@Component
+public class DispatchTrigger {
+    private static final Logger logger = LoggerFactory.getLogger(DispatchTrigger.class);
+
+    private final JobAssignmentScheduler scheduler;
+    private final SchedulerLeases leases;
+    private final boolean eventDriven;
+    private final long debounceMillis;
+    private final long maxIntervalMillis;
+    private final long minIntervalMillis;
+    private final int backlogStep;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "dispatch");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean batchPending = new AtomicBoolean();
+    /**
+     * Only touched from the dispatch thread.
+     */
+    private ScheduledFuture<?> nextTick;
+
+    public DispatchTrigger(
+            JobAssignmentScheduler scheduler,
+            SchedulerLeases leases,
+            @Value("${app.scheduler.event-driven-assignment:true}") boolean eventDriven,
+            @Value("${app.scheduler.assignment-debounce-millis:250}") long debounceMillis,
+            @Value("${app.scheduler.assignment-interval-seconds:10}") long maxIntervalSeconds,
+            @Value("${app.scheduler.assignment-min-interval-millis:1000}") long minIntervalMillis,
+            @Value("${app.scheduler.assignment-backlog-step:50}") int backlogStep
+    ) {
+        this.scheduler = scheduler;
+        this.leases = leases;
+        this.eventDriven = eventDriven;
+        this.debounceMillis = debounceMillis;
+        this.maxIntervalMillis = TimeUnit.SECONDS.toMillis(maxIntervalSeconds);
+        this.minIntervalMillis = Math.min(minIntervalMillis, maxIntervalMillis);
+        this.backlogStep = Math.max(1, backlogStep);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::runRound);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDispatchEvent(DispatchEvent event) {
+        if (!eventDriven) {
+            return;
+        }
+        logger.debug("Dispatch requested: {} {}.", event.reason(), event.subjectId());
+        if (batchPending.compareAndSet(false, true)) {
+            executor.schedule(this::runBatch, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Safety-net delay for the given number of jobs left waiting.
+     */
+    long tickDelayMillis(int backlog) {
+        if (backlog <= 0) {
+            return maxIntervalMillis;
+        }
+        return Math.max(minIntervalMillis, maxIntervalMillis / (1 + backlog / backlogStep));
+    }
+
+    private void runBatch() {
+        // Cleared before the round so events raised meanwhile schedule the next batch.
+        batchPending.set(false);
+        runRound();
+    }
+
+    private void runRound() {
+        long delay = maxIntervalMillis;
+        try {
+            Optional<SchedulerLeases.Lease> lease = leases.current(JobAssignmentScheduler.ASSIGNMENT_LEASE);
+            delay = lease.isPresent()
+                    ? tickDelayMillis(scheduler.assignJobsToClosestDrones(lease.get()))
+                    : minIntervalMillis;
+        } catch (RuntimeException ex) {
+            logger.error("Job assignment round failed.", ex);
+        }
+        if (nextTick != null) {
+            nextTick.cancel(false);
+        }
+        nextTick = executor.schedule(this::runRound, delay, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
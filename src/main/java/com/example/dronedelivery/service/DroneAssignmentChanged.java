@@ -0,0 +1,16 @@
+package com.example.dronedelivery.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when the current job of these drones changed: assigned, reserved, picked up, finished, handed off,
+ * canceled or edited.
+ */
+public record DroneAssignmentChanged(Collection<UUID> droneIds) {
+
+    public static DroneAssignmentChanged of(UUID droneId) {
+        return new DroneAssignmentChanged(List.of(droneId));
+    }
+}
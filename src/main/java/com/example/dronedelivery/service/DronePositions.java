@@ -0,0 +1,156 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.repo.DronePositionJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Latest reported position per drone, kept in memory and written to the {@code drone} table in periodic JDBC batches
+ * instead of one UPDATE per heartbeat.
+ * <p>
+ * Readers call {@link #overlay(Drone)} on drones loaded from the database; the in-memory position wins when it is
+ * newer than the row, which also holds when other nodes flush their own heartbeats for the same drone. Every recorded
+ * position also re-arms the drone's {@link HeartbeatDeadlines heartbeat deadline} and is appended to its flight history
+ * in the {@link TelemetryStore}, and passed to {@link #addListener listeners} such as the {@link OrderTracker}.
+ */
+@Component
+public class DronePositions {
+    private static final Logger logger = LoggerFactory.getLogger(DronePositions.class);
+
+    public record Position(double lat, double lng, Instant at) {}
+
+    private final DronePositionJdbcRepository positionRepository;
+    private final HeartbeatDeadlines heartbeatDeadlines;
+    private final TelemetryStore telemetryStore;
+    private final Duration maxStaleness;
+
+    private final Map<UUID, Position> latest = new ConcurrentHashMap<>();
+    /**
+     * Positions not yet written; an entry is only removed if it was not replaced while being flushed.
+     */
+    private final Map<UUID, Position> pending = new ConcurrentHashMap<>();
+    private final List<BiConsumer<UUID, Position>> listeners = new CopyOnWriteArrayList<>();
+
+    public DronePositions(
+            DronePositionJdbcRepository positionRepository,
+            HeartbeatDeadlines heartbeatDeadlines,
+            TelemetryStore telemetryStore,
+            @Value("${app.scheduler.heartbeat-max-staleness-seconds:30}") long maxStalenessSeconds
+    ) {
+        this.positionRepository = positionRepository;
+        this.heartbeatDeadlines = heartbeatDeadlines;
+        this.telemetryStore = telemetryStore;
+        this.maxStaleness = Duration.ofSeconds(maxStalenessSeconds);
+    }
+
+    public void record(UUID droneId, double lat, double lng, Instant at) {
+        record(droneId, new Position(lat, lng, at));
+    }
+
+    public void record(UUID droneId, Position position) {
+        latest.merge(droneId, position, DronePositions::newer);
+        pending.merge(droneId, position, DronePositions::newer);
+        heartbeatDeadlines.arm(droneId, position.at());
+        telemetryStore.append(droneId, position);
+        for (BiConsumer<UUID, Position> listener : listeners) {
+            listener.accept(droneId, position);
+        }
+    }
+
+    /**
+     * Calls {@code listener} on the reporting thread for every recorded position; it must return quickly.
+     */
+    public void addListener(BiConsumer<UUID, Position> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Replaces the drone's location with the buffered one when that is newer. Only call this on detached entities or
+     * inside a transaction that may write the drone anyway.
+     */
+    public Drone overlay(Drone drone) {
+        Position position = latest.get(drone.getId());
+        if (position != null && (drone.getLastHeartbeatAt() == null || position.at().isAfter(drone.getLastHeartbeatAt()))) {
+            drone.setLastLat(position.lat());
+            drone.setLastLng(position.lng());
+            drone.setLastHeartbeatAt(position.at());
+        }
+        return drone;
+    }
+
+    /**
+     * Like {@link #overlay(Drone)} but leaves the entity untouched.
+     */
+    public Instant lastHeartbeatAt(Drone drone) {
+        return lastHeartbeatAt(drone.getId(), drone.getLastHeartbeatAt());
+    }
+
+    /**
+     * Like {@link #lastHeartbeatAt(Drone)} for a drone read as a projection.
+     */
+    public Instant lastHeartbeatAt(UUID droneId, Instant stored) {
+        Position position = latest.get(droneId);
+        if (position == null) {
+            return stored;
+        }
+        return stored == null || position.at().isAfter(stored) ? position.at() : stored;
+    }
+
+    /**
+     * Like {@link #overlay(Drone)} for a drone read as a projection: the newer of the buffered and the stored position,
+     * or null if neither is known.
+     */
+    public Position position(UUID droneId, Double storedLat, Double storedLng, Instant storedAt) {
+        Position position = latest.get(droneId);
+        if (position != null && (storedAt == null || position.at().isAfter(storedAt))) {
+            return position;
+        }
+        return storedLat == null || storedLng == null ? null : new Position(storedLat, storedLng, storedAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.heartbeat-flush-interval-millis:1000}")
+    public void flush() {
+        List<Map.Entry<UUID, Position>> batch = new ArrayList<>(pending.entrySet());
+        if (!batch.isEmpty()) {
+            positionRepository.updatePositions(batch.stream()
+                    .map(e -> new DronePositionJdbcRepository.PositionUpdate(e.getKey(), e.getValue().lat(), e.getValue().lng(), e.getValue().at()))
+                    .toList());
+            for (Map.Entry<UUID, Position> e : batch) {
+                pending.remove(e.getKey(), e.getValue());
+            }
+            logger.debug("Flushed {} drone position(s).", batch.size());
+        }
+
+        // Drones that stopped reporting here fall back to their row.
+        Instant cutoff = Instant.now().minus(maxStaleness);
+        latest.entrySet().removeIf(e -> e.getValue().at().isBefore(cutoff) && !pending.containsKey(e.getKey()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            logger.warn("Could not flush {} buffered drone position(s) on shutdown.", pending.size(), ex);
+        }
+    }
+
+    private static Position newer(Position a, Position b) {
+        return b.at().isAfter(a.at()) ? b : a;
+    }
+}
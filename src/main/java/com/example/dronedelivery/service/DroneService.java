@@ -1,15 +1,23 @@
 package com.example.dronedelivery.service;
 
+import com.example.dronedelivery.api.dto.DroneDtos;
 import com.example.dronedelivery.domain.*;
 import com.example.dronedelivery.repo.DroneRepository;
 import com.example.dronedelivery.repo.JobRepository;
 import com.example.dronedelivery.repo.OrderRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -20,120 +28,101 @@ public class DroneService {
     private final OrderRepository orderRepository;
     private final JobRepository jobRepository;
     private final DeliveryServiceHelper helper;
-
-    @Transactional
-    public Drone heartbeat(UUID droneId, double lat, double lng) {
-        Drone d = droneRepository.findById(droneId)
+    private final OpenJobQueue openJobQueue;
+    private final DronePositions dronePositions;
+    private final HeartbeatDeadlines heartbeatDeadlines;
+    private final ApplicationEventPublisher events;
+    private final KeysetPager pager;
+    private final OrderReadModels readModels;
+
+    /**
+     * Buffers the position (it reaches the {@code drone} table with the next {@link DronePositions#flush()}) and reads
+     * the drone's assignment back in a single joined query.
+     */
+    public DroneDtos.HeartbeatResponse heartbeat(UUID droneId, double lat, double lng) {
+        DroneRepository.HeartbeatView view = droneRepository.findHeartbeatView(droneId)
                 .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
-        d.setLastLat(lat);
-        d.setLastLng(lng);
-        d.setLastHeartbeatAt(Instant.now());
-        return droneRepository.save(d);
+        DronePositions.Position position = new DronePositions.Position(lat, lng, Instant.now());
+        dronePositions.record(droneId, position);
+        return ResponseMapper.toDto(view, position);
     }
 
-    @Transactional
-    public Job reserveJob(UUID droneId, UUID jobId) {
-        Drone d = droneRepository.findById(droneId)
-                .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
-
-        if (d.getStatus() == DroneStatus.BROKEN) {
-            throw ApiException.badRequest("Broken drones cannot reserve jobs.");
+    /**
+     * Batch form of {@link #heartbeat}: one joined query for all reports. Drones that do not exist are left out.
+     */
+    public Map<UUID, DroneDtos.HeartbeatResponse> heartbeats(List<DroneDtos.TelemetryReport> reports) {
+        Set<UUID> droneIds = new HashSet<>();
+        for (DroneDtos.TelemetryReport report : reports) {
+            droneIds.add(report.droneId());
         }
-
-        try {
-            Job job = jobRepository.findById(jobId)
-                    .orElseThrow(() -> ApiException.notFound("Job not found: " + jobId));
-
-            if (job.getStatus() != JobStatus.OPEN) {
-                throw ApiException.conflict("Job is not open for reservation.");
-            }
-            if (job.getExcludedDroneId() != null && job.getExcludedDroneId().equals(droneId)) {
-                throw ApiException.forbidden("This job must be picked up by a different drone.");
+        Map<UUID, DroneRepository.HeartbeatView> views = new HashMap<>();
+        for (DroneRepository.HeartbeatView view : droneRepository.findHeartbeatViews(droneIds)) {
+            views.put(view.getDroneId(), view);
+        }
+        Instant now = Instant.now();
+        Map<UUID, DroneDtos.HeartbeatResponse> responses = new HashMap<>();
+        for (DroneDtos.TelemetryReport report : reports) {
+            DroneRepository.HeartbeatView view = views.get(report.droneId());
+            if (view == null) {
+                continue;
             }
+            DronePositions.Position position = new DronePositions.Position(report.location().lat(), report.location().lng(), now);
+            dronePositions.record(report.droneId(), position);
+            responses.put(report.droneId(), ResponseMapper.toDto(view, position));
+        }
+        return responses;
+    }
 
-            job.setAssignedDroneId(droneId);
-            job.setStatus(JobStatus.RESERVED);
-            job.setReservedAt(Instant.now());
-
-            Job saved = jobRepository.save(job);
-
-            d.setCurrentJobId(saved.getId());
-            droneRepository.save(d);
-
-            return saved;
-        } catch (OptimisticLockingFailureException e) {
-            throw ApiException.conflict("Reservation conflict. Another drone reserved this job first.");
+    /**
+     * OPEN -> RESERVED. Like the other transitions below, each row is written with one guarded UPDATE and nothing is
+     * read first; the rows are only read to explain a rejected transition and to return the job.
+     */
+    @Transactional
+    public Job reserveJob(UUID droneId, UUID jobId) {
+        if (jobRepository.reserve(jobId, droneId, Instant.now()) != 1) {
+            throw rejected(jobId, droneId, JobStatus.OPEN);
+        }
+        if (droneRepository.assignJob(droneId, jobId) != 1) {
+            // The drone is missing or broken; the reservation above rolls back.
+            ApiException problem = rejectedDrone(droneId, true);
+            throw problem != null ? problem : ApiException.conflict("Drone could not take the job.");
         }
+        openJobQueue.jobClosed(jobId);
+        events.publishEvent(DroneAssignmentChanged.of(droneId));
+        events.publishEvent(JobChanged.of(jobId));
+        return jobRepository.findById(jobId).orElseThrow();
     }
 
     @Transactional
     public Job pickupJob(UUID droneId, UUID jobId) {
-        Drone d = droneRepository.findById(droneId)
-                .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
-
-        Job job = jobRepository.findById(jobId)
-                .orElseThrow(() -> ApiException.notFound("Job not found: " + jobId));
-
-        if (!droneId.equals(job.getAssignedDroneId())) {
-            throw ApiException.forbidden("You can only pick up a job reserved for your drone.");
+        if (jobRepository.start(jobId, droneId, Instant.now()) != 1) {
+            throw rejected(jobId, droneId, JobStatus.RESERVED);
         }
-        if (job.getStatus() != JobStatus.RESERVED) {
-            throw ApiException.badRequest("Job must be RESERVED to start pickup.");
+        Job job = moveOrder(jobId, OrderStatus.IN_DELIVERY);
+        if (droneRepository.assignJob(droneId, jobId) != 1) {
+            ApiException problem = rejectedDrone(droneId, false);
+            throw problem != null ? problem : ApiException.conflict("Drone is broken; it cannot pick up the job.");
         }
-
-        job.setStatus(JobStatus.IN_PROGRESS);
-        job.setStartedAt(Instant.now());
-        jobRepository.save(job);
-
-        DeliveryOrder order = orderRepository.findById(job.getOrderId())
-                .orElseThrow(() -> ApiException.notFound("Order not found for job: " + job.getOrderId()));
-        order.setStatus(OrderStatus.IN_DELIVERY);
-        orderRepository.save(order);
-
-        d.setCurrentJobId(job.getId());
-        droneRepository.save(d);
-
+        events.publishEvent(DroneAssignmentChanged.of(droneId));
+        events.publishEvent(JobChanged.of(jobId));
+        events.publishEvent(OrderChanged.of(job.getOrderId()));
         return job;
     }
 
     @Transactional
     public Job completeJob(UUID droneId, UUID jobId) {
-        Job job = helper.requireInProgressJobForDrone(droneId, jobId);
-
-        job.setStatus(JobStatus.COMPLETED);
-        job.setCompletedAt(Instant.now());
-        jobRepository.save(job);
-
-        DeliveryOrder order = orderRepository.findById(job.getOrderId())
-                .orElseThrow(() -> ApiException.notFound("Order not found for job: " + job.getOrderId()));
-        order.setStatus(OrderStatus.DELIVERED);
-        orderRepository.save(order);
-
-        Drone d = droneRepository.findById(droneId).orElseThrow();
-        d.setCurrentJobId(null);
-        droneRepository.save(d);
-
-        return job;
+        if (jobRepository.complete(jobId, droneId, Instant.now()) != 1) {
+            throw rejected(jobId, droneId, JobStatus.IN_PROGRESS);
+        }
+        return finish(droneId, moveOrder(jobId, OrderStatus.DELIVERED));
     }
 
     @Transactional
     public Job failJob(UUID droneId, UUID jobId) {
-        Job job = helper.requireInProgressJobForDrone(droneId, jobId);
-
-        job.setStatus(JobStatus.FAILED);
-        job.setFailedAt(Instant.now());
-        jobRepository.save(job);
-
-        DeliveryOrder order = orderRepository.findById(job.getOrderId())
-                .orElseThrow(() -> ApiException.notFound("Order not found for job: " + job.getOrderId()));
-        order.setStatus(OrderStatus.FAILED);
-        orderRepository.save(order);
-
-        Drone d = droneRepository.findById(droneId).orElseThrow();
-        d.setCurrentJobId(null);
-        droneRepository.save(d);
-
-        return job;
+        if (jobRepository.fail(jobId, droneId, Instant.now()) != 1) {
+            throw rejected(jobId, droneId, JobStatus.IN_PROGRESS);
+        }
+        return finish(droneId, moveOrder(jobId, OrderStatus.FAILED));
     }
 
     @Transactional
@@ -149,7 +138,10 @@ public class DroneService {
         Drone d = droneRepository.findById(droneId)
                 .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
         d.setStatus(DroneStatus.FIXED);
-        return droneRepository.save(d);
+        Drone saved = droneRepository.save(d);
+        heartbeatDeadlines.arm(droneId, dronePositions.lastHeartbeatAt(saved));
+        events.publishEvent(DispatchEvent.droneFreed(droneId));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -159,4 +151,145 @@ public class DroneService {
         if (d.getCurrentJobId() == null) return null;
         return jobRepository.findById(d.getCurrentJobId()).orElse(null);
     }
+
+    /**
+     * The drone's current job as an assignment, or null. Only the drone row is read from the database; the job and
+     * its order come from the {@link OrderReadModels} cache.
+     *
+     * @param seen the tag from {@link #getCurrentAssignmentVersion}, or null; the job and order shown are at least
+     *             that new
+     */
+    public DroneDtos.Assignment getCurrentAssignment(UUID droneId, VersionTag seen) {
+        Drone d = droneRepository.findById(droneId)
+                .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
+        if (d.getCurrentJobId() == null) return null;
+        DroneDtos.JobResponse job = readModels.job(d.getCurrentJobId(), seen == null ? 0 : seen.jobVersion());
+        return new DroneDtos.Assignment(
+                job.id(),
+                job.status(),
+                job.type(),
+                job.pickup(),
+                job.dropoff(),
+                job.orderId(),
+                readModels.order(job.orderId(), seen == null ? 0 : seen.orderVersion()).status()
+        );
+    }
+
+    /**
+     * ETag of {@link #getCurrentAssignment}'s response from one indexed read of the drone's current job id and the
+     * versions of that job and its order.
+     */
+    @Transactional(readOnly = true)
+    public VersionTag getCurrentAssignmentVersion(UUID droneId) {
+        DroneRepository.AssignmentVersionView v = droneRepository.findAssignmentVersionView(droneId)
+                .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
+        if (v.getJobId() == null) {
+            return VersionTag.of(VersionTag.NONE, VersionTag.NONE);
+        }
+        return VersionTag.of(v.getOrderVersion() == null ? VersionTag.NONE : v.getOrderVersion(),
+                v.getJobVersion() == null ? VersionTag.NONE : v.getJobVersion(), v.getJobId());
+    }
+
+    /**
+     * Up to {@code limit} open jobs closest to the drone's last reported position, within {@code radiusMeters} if
+     * given, leaving out handoffs the drone is excluded from. Served from the in-memory {@link OpenJobQueue} and
+     * {@link OrderReadModels}; the database is only read for a drone with no buffered heartbeat or a cold job entry.
+     */
+    public List<DroneDtos.NearbyJobResponse> nearestOpenJobs(UUID droneId, Integer limit, Double radiusMeters) {
+        if (radiusMeters != null && !(radiusMeters > 0)) {
+            throw ApiException.badRequest("radiusMeters must be positive.");
+        }
+        DronePositions.Position position = dronePositions.position(droneId, null, null, null);
+        if (position == null) {
+            Drone d = droneRepository.findById(droneId)
+                    .orElseThrow(() -> ApiException.notFound("Drone not found: " + droneId));
+            if (d.getLastLat() == null || d.getLastLng() == null) {
+                throw ApiException.badRequest("Drone has no known location; send a heartbeat first.");
+            }
+            position = new DronePositions.Position(d.getLastLat(), d.getLastLng(), d.getLastHeartbeatAt());
+        }
+        List<OpenJobQueue.Nearby> nearby = openJobQueue.nearest(position.lat(), position.lng(), pager.limit(limit),
+                radiusMeters == null ? Double.POSITIVE_INFINITY : radiusMeters, droneId);
+        Map<UUID, DroneDtos.JobResponse> jobs = readModels.jobs(nearby.stream().map(n -> n.job().id()).toList());
+        List<DroneDtos.NearbyJobResponse> responses = new ArrayList<>();
+        for (OpenJobQueue.Nearby n : nearby) {
+            DroneDtos.JobResponse job = jobs.get(n.job().id());
+            if (job != null) {
+                responses.add(new DroneDtos.NearbyJobResponse(job, n.distanceMeters()));
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Open jobs, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPager.Page<Job> listOpenJobs(Instant from, Instant to, KeysetPager.Cursor after, Integer limit) {
+        Specification<Job> filter = Specification.<Job>where(KeysetPager.equal("status", JobStatus.OPEN))
+                .and(KeysetPager.createdBetween(from, to));
+        return pager.page(jobRepository, filter, after, limit, KeysetPager.Direction.OLDEST_FIRST,
+                j -> new KeysetPager.Cursor(j.getCreatedAt(), j.getId()));
+    }
+
+    /**
+     * Moves the order of a job that was just transitioned and reads the job back.
+     */
+    private Job moveOrder(UUID jobId, OrderStatus status) {
+        if (orderRepository.moveWithJob(jobId, status) != 1) {
+            throw ApiException.conflict("Order no longer follows job " + jobId + ".");
+        }
+        return jobRepository.findById(jobId).orElseThrow();
+    }
+
+    private Job finish(UUID droneId, Job job) {
+        // A drone that already moved on to another job keeps it.
+        droneRepository.releaseJob(droneId, job.getId());
+        events.publishEvent(DispatchEvent.droneFreed(droneId));
+        events.publishEvent(DroneAssignmentChanged.of(droneId));
+        events.publishEvent(JobChanged.of(job.getId()));
+        events.publishEvent(OrderChanged.of(job.getOrderId()));
+        return job;
+    }
+
+    /**
+     * Why a guarded job update matched no row, given the status it required. Checks run in the order the
+     * read-then-write transitions used to run them: for reserve and pickup the drone first (a broken drone cannot
+     * reserve), then the job.
+     */
+    private ApiException rejected(UUID jobId, UUID droneId, JobStatus required) {
+        if (required == JobStatus.OPEN || required == JobStatus.RESERVED) {
+            ApiException droneProblem = rejectedDrone(droneId, required == JobStatus.OPEN);
+            if (droneProblem != null) {
+                return droneProblem;
+            }
+        }
+        Job job = jobRepository.findById(jobId)
+                .orElseThrow(() -> ApiException.notFound("Job not found: " + jobId));
+        return switch (required) {
+            case OPEN -> job.getStatus() != JobStatus.OPEN
+                    ? ApiException.conflict("Job is not open for reservation.")
+                    : ApiException.forbidden("This job must be picked up by a different drone.");
+            case RESERVED -> droneId.equals(job.getAssignedDroneId())
+                    ? ApiException.badRequest("Job must be RESERVED to start pickup.")
+                    : ApiException.forbidden("You can only pick up a job reserved for your drone.");
+            default -> droneId.equals(job.getAssignedDroneId())
+                    ? ApiException.badRequest("Job must be IN_PROGRESS to mark delivered/failed.")
+                    : ApiException.forbidden("You can only update jobs assigned to your drone.");
+        };
+    }
+
+    /**
+     * 404 for a missing drone and, if {@code reserving}, 400 for a broken one; null if neither applies.
+     */
+    private ApiException rejectedDrone(UUID droneId, boolean reserving) {
+        Drone d = droneRepository.findById(droneId).orElse(null);
+        if (d == null) {
+            return ApiException.notFound("Drone not found: " + droneId);
+        }
+        if (reserving && d.getStatus() == DroneStatus.BROKEN) {
+            return ApiException.badRequest("Broken drones cannot reserve jobs.");
+        }
+        return null;
+    }
 }
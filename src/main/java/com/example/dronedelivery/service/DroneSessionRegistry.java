@@ -0,0 +1,228 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.example.dronedelivery.repo.DroneRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Open WebSocket sessions by drone, one per drone (a new connection replaces the old one).
+ * <p>
+ * Each session is wrapped in a {@link ConcurrentWebSocketSessionDecorator}: a send never waits for a slow drone, its
+ * messages are buffered up to {@code send-buffer-bytes} (oldest dropped first, which is safe because every
+ * {@link DroneDtos.DroneCommand} carries the full assignment) and a drone that does not read for
+ * {@code send-time-limit-millis} is disconnected. Commands are only sent when they differ from the last one sent.
+ * <p>
+ * {@link DroneAssignmentChanged} events mark the affected drones connected to this node; one push thread turns the
+ * marked drones into commands after commit, with one joined query per batch. A drone marked again while queued is
+ * pushed once, with its latest state, and since reads and sends happen on that one thread a drone never gets an older
+ * assignment after a newer one.
+ * <p>
+ * Assignments changed through other nodes (the dispatcher runs on whichever node holds its lease) are picked up by
+ * polling the job and order versions of the connected drones every {@code refresh-millis}; a drone whose versions
+ * differ from those of the last command pushed to it is pushed again.
+ */
+@Component
+public class DroneSessionRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(DroneSessionRegistry.class);
+
+    private static final int PUSH_BATCH_SIZE = 1000;
+
+    /**
+     * What a pushed command was built from; null fields for no current job.
+     */
+    private record Versions(UUID jobId, Long jobVersion, Long orderVersion) {}
+
+    private static final class DroneSession {
+        private final WebSocketSession raw;
+        private final WebSocketSession session;
+        private String lastCommand;
+
+        /**
+         * Versions behind the last pushed command; null when unknown, e.g. after a heartbeat reply.
+         */
+        private volatile Versions lastVersions;
+
+        private DroneSession(WebSocketSession raw, WebSocketSession session) {
+            this.raw = raw;
+            this.session = session;
+        }
+    }
+
+    private final DroneRepository droneRepository;
+    private final ObjectWriter commandWriter;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferBytes;
+
+    private final Map<UUID, DroneSession> sessions = new ConcurrentHashMap<>();
+    private final ExecutorService pushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "drone-session-push");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<UUID> pendingPushes = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean pushQueued = new AtomicBoolean();
+
+    public DroneSessionRegistry(
+            DroneRepository droneRepository,
+            ObjectMapper objectMapper,
+            @Value("${app.websocket.send-time-limit-millis:5000}") int sendTimeLimitMillis,
+            @Value("${app.websocket.send-buffer-bytes:65536}") int sendBufferBytes
+    ) {
+        this.droneRepository = droneRepository;
+        this.commandWriter = objectMapper.writerFor(DroneDtos.DroneCommand.class);
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferBytes = sendBufferBytes;
+    }
+
+    /**
+     * Starts pushing commands to {@code session} and sends the drone its current assignment.
+     */
+    public void register(UUID droneId, WebSocketSession session) {
+        DroneSession added = new DroneSession(session, new ConcurrentWebSocketSessionDecorator(
+                session, sendTimeLimitMillis, sendBufferBytes, ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP));
+        DroneSession previous = sessions.put(droneId, added);
+        if (previous != null) {
+            close(previous, CloseStatus.POLICY_VIOLATION.withReason("Replaced by a newer session."));
+        }
+        requestPush(List.of(droneId));
+    }
+
+    public void unregister(UUID droneId, WebSocketSession session) {
+        sessions.computeIfPresent(droneId, (id, s) -> s.raw == session ? null : s);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Sends {@code command} unless the drone is not connected here or was already sent the same command. The next
+     * {@link #refresh()} checks the command against the database and pushes again if it was already out of date.
+     */
+    public void send(UUID droneId, DroneDtos.DroneCommand command) {
+        send(droneId, command, null);
+    }
+
+    private void send(UUID droneId, DroneDtos.DroneCommand command, Versions versions) {
+        DroneSession s = sessions.get(droneId);
+        if (s == null) {
+            return;
+        }
+        String json;
+        try {
+            json = commandWriter.writeValueAsString(command);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize drone command.", ex);
+        }
+        synchronized (s) {
+            s.lastVersions = versions;
+            if (json.equals(s.lastCommand)) {
+                return;
+            }
+            s.lastCommand = json;
+            try {
+                s.session.sendMessage(new TextMessage(json));
+            } catch (IOException | SessionLimitExceededException ex) {
+                logger.info("Dropping WebSocket session of drone {}: {}", droneId, ex.getMessage());
+                sessions.remove(droneId, s);
+                close(s, CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssignmentChanged(DroneAssignmentChanged event) {
+        requestPush(event.droneIds().stream().filter(sessions::containsKey).toList());
+    }
+
+    /**
+     * Pushes again to every connected drone whose job or order versions moved since its last push, picking up
+     * assignments changed through other nodes.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.refresh-millis:1000}")
+    public void refresh() {
+        List<UUID> connected = new ArrayList<>(sessions.keySet());
+        List<UUID> changed = new ArrayList<>();
+        for (int from = 0; from < connected.size(); from += PUSH_BATCH_SIZE) {
+            List<UUID> batch = connected.subList(from, Math.min(connected.size(), from + PUSH_BATCH_SIZE));
+            try {
+                for (DroneRepository.AssignmentVersionView v : droneRepository.findAssignmentVersionViews(batch)) {
+                    DroneSession s = sessions.get(v.getDroneId());
+                    if (s != null && !new Versions(v.getJobId(), v.getJobVersion(), v.getOrderVersion()).equals(s.lastVersions)) {
+                        changed.add(v.getDroneId());
+                    }
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Could not check assignments of {} connected drone(s).", batch.size(), ex);
+            }
+        }
+        requestPush(changed);
+    }
+
+    private void requestPush(Collection<UUID> droneIds) {
+        if (droneIds.isEmpty()) {
+            return;
+        }
+        pendingPushes.addAll(droneIds);
+        if (pushQueued.compareAndSet(false, true)) {
+            pushExecutor.execute(this::pushPending);
+        }
+    }
+
+    private void pushPending() {
+        pushQueued.set(false);
+        List<UUID> droneIds = new ArrayList<>(pendingPushes);
+        pendingPushes.removeAll(droneIds);
+        for (int from = 0; from < droneIds.size(); from += PUSH_BATCH_SIZE) {
+            List<UUID> batch = droneIds.subList(from, Math.min(droneIds.size(), from + PUSH_BATCH_SIZE));
+            try {
+                for (DroneRepository.HeartbeatView view : droneRepository.findHeartbeatViews(batch)) {
+                    send(view.getDroneId(), ResponseMapper.toCommand(view),
+                            new Versions(view.getJobId(), view.getJobVersion(), view.getOrderVersion()));
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("Could not push assignments to {} drone(s).", batch.size(), ex);
+            }
+        }
+    }
+
+    private static void close(DroneSession s, CloseStatus status) {
+        try {
+            s.session.close(status);
+        } catch (IOException ex) {
+            logger.debug("Could not close WebSocket session.", ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        pushExecutor.shutdownNow();
+    }
+}
@@ -5,10 +5,15 @@ import com.example.dronedelivery.domain.*;
 import com.example.dronedelivery.repo.JobRepository;
 import com.example.dronedelivery.repo.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -18,18 +23,26 @@ public class EndUserService {
     private final OrderRepository orderRepository;
     private final JobRepository jobRepository;
     private final DeliveryServiceHelper helper;
+    private final OpenJobQueue openJobQueue;
+    private final ApplicationEventPublisher events;
+    private final KeysetPager pager;
+    private final OrderReadModels readModels;
+    private final DronePositions dronePositions;
+    private final OrderArchive orderArchive;
 
     @Transactional
     public DeliveryOrder submitOrder(UUID endUserId, double originLat, double originLng, double destLat, double destLng) {
+        // Both ids exist before anything is persisted, so the order and its job go out as two inserts in one flush
+        // at commit, without a follow-up update of the order's current job.
         DeliveryOrder order = new DeliveryOrder(endUserId, originLat, originLng, destLat, destLng);
-        order = orderRepository.save(order);
-
         Job job = new Job(order.getId(), JobType.PICKUP_AND_DELIVER, originLat, originLng, destLat, destLng, null);
-        job = jobRepository.save(job);
-
         order.setCurrentJobId(job.getId());
         orderRepository.save(order);
+        jobRepository.save(job);
 
+        openJobQueue.jobOpened(job);
+        events.publishEvent(DispatchEvent.jobOpened(job.getId()));
+        events.publishEvent(OrderChanged.of(order.getId()));
         return order;
     }
 
@@ -56,13 +69,24 @@ public class EndUserService {
         order.setStatus(OrderStatus.CANCELED);
         currentJob.setStatus(JobStatus.CANCELED);
         jobRepository.save(currentJob);
+        openJobQueue.jobClosed(currentJob.getId());
         orderRepository.save(order);
+        if (currentJob.getAssignedDroneId() != null) {
+            events.publishEvent(DroneAssignmentChanged.of(currentJob.getAssignedDroneId()));
+        }
+        events.publishEvent(JobChanged.of(currentJob.getId()));
+        events.publishEvent(OrderChanged.of(order.getId()));
         return order;
     }
 
     @Transactional(readOnly = true)
-    public List<DeliveryOrder> listOrdersForEndUser(UUID endUserId) {
-        return orderRepository.findByCreatedByEndUserIdOrderByCreatedAtDesc(endUserId);
+    public KeysetPager.Page<DeliveryOrder> listOrdersForEndUser(UUID endUserId, OrderStatus status, Instant from, Instant to,
+                                                                KeysetPager.Cursor after, Integer limit) {
+        Specification<DeliveryOrder> filter = Specification.<DeliveryOrder>where(KeysetPager.equal("createdByEndUserId", endUserId))
+                .and(KeysetPager.equal("status", status))
+                .and(KeysetPager.createdBetween(from, to));
+        return pager.page(orderRepository, filter, after, limit, KeysetPager.Direction.NEWEST_FIRST,
+                o -> new KeysetPager.Cursor(o.getCreatedAt(), o.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -75,8 +99,49 @@ public class EndUserService {
         return order;
     }
 
+    /**
+     * Like {@link #getOrderForEndUser} with progress, reading the order from the {@link OrderReadModels} cache.
+     */
+    public OrderDtos.OrderResponse getOrderViewForEndUser(UUID endUserId, UUID orderId) {
+        return getOrderViewForEndUser(endUserId, orderId, null);
+    }
+
+    /**
+     * @param seen the tag from {@link #getOrderVersionForEndUser}; the order shown is at least that new
+     */
+    public OrderDtos.OrderResponse getOrderViewForEndUser(UUID endUserId, UUID orderId, VersionTag seen) {
+        OrderDtos.OrderResponse order = readModels.order(orderId, seen == null ? 0 : seen.orderVersion());
+        if (!order.createdByEndUserId().equals(endUserId)) {
+            throw ApiException.forbidden("You can only view your own orders.");
+        }
+        return helper.withProgress(List.of(order)).get(0);
+    }
+
+    /**
+     * ETag of {@link #getOrderViewForEndUser}'s response from one indexed read of versions: it moves with the order,
+     * its current job and the last heartbeat of the job's drone, which moves the progress. Archived orders take a
+     * second read, of the archive.
+     */
+    @Transactional(readOnly = true)
+    public VersionTag getOrderVersionForEndUser(UUID endUserId, UUID orderId) {
+        OrderRepository.OrderVersionView v = orderRepository.findVersionView(orderId)
+                .or(() -> orderArchive.versionView(orderId))
+                .orElseThrow(() -> ApiException.notFound("Order not found: " + orderId));
+        if (!v.getEndUserId().equals(endUserId)) {
+            throw ApiException.forbidden("You can only view your own orders.");
+        }
+        Instant heartbeatAt = v.getDroneId() == null ? null : dronePositions.lastHeartbeatAt(v.getDroneId(), v.getLastHeartbeatAt());
+        return VersionTag.of(v.getOrderVersion(), v.getJobVersion() == null ? VersionTag.NONE : v.getJobVersion(),
+                heartbeatAt == null ? null : heartbeatAt.toEpochMilli());
+    }
+
     @Transactional(readOnly = true)
     public OrderDtos.Progress computeProgress(DeliveryOrder order) {
         return helper.computeProgress(order);
     }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, OrderDtos.Progress> computeProgress(Collection<DeliveryOrder> orders) {
+        return helper.computeProgress(orders);
+    }
 }
@@ -0,0 +1,111 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Ingests a gateway's telemetry stream (NDJSON, or one JSON array) in batches of {@code telemetry-batch-size} reports,
+ * so memory stays bounded however long the stream is. Each batch is one {@link DroneService#heartbeats(List)} call,
+ * and its {@link DroneDtos.TelemetryDelta deltas} are written and flushed before the next batch is read.
+ */
+@Service
+public class GatewayTelemetryService {
+
+    private final DroneService droneService;
+    private final ObjectReader reportReader;
+    private final ObjectWriter deltaWriter;
+    private final int batchSize;
+
+    public GatewayTelemetryService(
+            DroneService droneService,
+            ObjectMapper objectMapper,
+            @Value("${app.gateway.telemetry-batch-size:500}") int batchSize
+    ) {
+        this.droneService = droneService;
+        this.reportReader = objectMapper.readerFor(DroneDtos.TelemetryReport.class);
+        this.deltaWriter = objectMapper.writerFor(DroneDtos.TelemetryDelta.class);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Reads reports from {@code in} and writes one NDJSON delta line per drone whose assignment changed or whose report
+     * was rejected. A malformed report ends the stream with an error line; batches before it are kept.
+     *
+     * @return number of reports read
+     */
+    public int ingest(InputStream in, OutputStream out) throws IOException {
+        int read = 0;
+        List<DroneDtos.TelemetryReport> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<DroneDtos.TelemetryReport> reports = reportReader.readValues(in)) {
+            while (reports.hasNextValue()) {
+                DroneDtos.TelemetryReport report = reports.nextValue();
+                read++;
+                if (!isComplete(report)) {
+                    write(out, new DroneDtos.TelemetryDelta(report.droneId(), null, null, "droneId and location are required."));
+                    continue;
+                }
+                batch.add(report);
+                if (batch.size() == batchSize) {
+                    process(batch, out);
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            process(batch, out);
+            write(out, new DroneDtos.TelemetryDelta(null, null, null, "Malformed telemetry after " + read + " report(s): " + ex.getOriginalMessage()));
+            out.flush();
+            return read;
+        }
+        process(batch, out);
+        out.flush();
+        return read;
+    }
+
+    private void process(List<DroneDtos.TelemetryReport> batch, OutputStream out) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<UUID, DroneDtos.HeartbeatResponse> responses = droneService.heartbeats(batch);
+        for (DroneDtos.TelemetryReport report : batch) {
+            DroneDtos.HeartbeatResponse response = responses.get(report.droneId());
+            if (response == null) {
+                write(out, new DroneDtos.TelemetryDelta(report.droneId(), null, null, "Drone not found: " + report.droneId()));
+            } else if (changed(report, response.assignment())) {
+                write(out, new DroneDtos.TelemetryDelta(report.droneId(), response.assignment(), response.nextAction(), null));
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean isComplete(DroneDtos.TelemetryReport report) {
+        return report.droneId() != null && report.location() != null
+                && report.location().lat() != null && report.location().lng() != null;
+    }
+
+    private static boolean changed(DroneDtos.TelemetryReport report, DroneDtos.Assignment assignment) {
+        if (assignment == null) {
+            return report.jobId() != null;
+        }
+        return !Objects.equals(report.jobId(), assignment.jobId()) || report.jobStatus() != assignment.jobStatus();
+    }
+
+    private void write(OutputStream out, DroneDtos.TelemetryDelta delta) throws IOException {
+        out.write(deltaWriter.writeValueAsBytes(delta));
+        out.write('\n');
+    }
+}
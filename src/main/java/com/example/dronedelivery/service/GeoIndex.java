@@ -0,0 +1,275 @@
+package com.example.dronedelivery.service;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Static k-d tree over lat/lng points for nearest-neighbour lookups.
+ * <p>
+ * Points are projected onto the unit sphere, so the straight-line (chord) distance between two points orders them
+ * exactly like {@link GeoUtil#haversineMeters} does, without any trigonometry per comparison.
+ * Removal is lazy: a removed point keeps splitting space but is never returned, and subtrees without live points are
+ * skipped entirely.
+ * <p>
+ * Not thread-safe; build one per use (e.g. per scheduler tick) or guard it, as {@link OpenJobQueue} does.
+ */
+public final class GeoIndex<K> {
+
+    public record Hit<K>(K key, double distanceMeters) {}
+
+    private final Object[] keys;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final boolean[] removed;
+    /**
+     * Live point count of the subtree whose root sits at that index.
+     */
+    private final int[] live;
+    private final Map<K, Integer> positions;
+
+    private GeoIndex(int n) {
+        this.keys = new Object[n];
+        this.xs = new double[n];
+        this.ys = new double[n];
+        this.zs = new double[n];
+        this.removed = new boolean[n];
+        this.live = new int[n];
+        this.positions = new HashMap<>(Math.max(16, n * 2));
+    }
+
+    public static <T, K> GeoIndex<K> build(Collection<T> items,
+                                          Function<T, K> key,
+                                          ToDoubleFunction<T> lat,
+                                          ToDoubleFunction<T> lng) {
+        GeoIndex<K> index = new GeoIndex<>(items.size());
+        int i = 0;
+        for (T item : items) {
+            index.keys[i] = key.apply(item);
+            double latR = Math.toRadians(lat.applyAsDouble(item));
+            double lngR = Math.toRadians(lng.applyAsDouble(item));
+            index.xs[i] = Math.cos(latR) * Math.cos(lngR);
+            index.ys[i] = Math.cos(latR) * Math.sin(lngR);
+            index.zs[i] = Math.sin(latR);
+            i++;
+        }
+        index.build(0, i, 0);
+        for (int p = 0; p < i; p++) {
+            index.positions.put(index.key(p), p);
+        }
+        return index;
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public boolean isEmpty() {
+        return positions.isEmpty();
+    }
+
+    public boolean contains(K key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Marks the point as taken so later queries no longer return it.
+     */
+    public boolean remove(K key) {
+        Integer pos = positions.remove(key);
+        if (pos == null) {
+            return false;
+        }
+        removed[pos] = true;
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            live[mid]--;
+            if (pos == mid) {
+                break;
+            }
+            if (pos < mid) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Closest live point accepted by the filter, or null when there is none.
+     */
+    public Hit<K> nearest(double lat, double lng, Predicate<K> accept) {
+        List<Hit<K>> hits = nearest(lat, lng, 1, Double.POSITIVE_INFINITY, accept);
+        return hits.isEmpty() ? null : hits.get(0);
+    }
+
+    /**
+     * Up to {@code limit} closest live points within {@code maxMeters}, closest first.
+     */
+    public List<Hit<K>> nearest(double lat, double lng, int limit, double maxMeters, Predicate<K> accept) {
+        if (limit <= 0 || positions.isEmpty()) {
+            return List.of();
+        }
+        double latR = Math.toRadians(lat);
+        double lngR = Math.toRadians(lng);
+        double[] q = {
+                Math.cos(latR) * Math.cos(lngR),
+                Math.cos(latR) * Math.sin(lngR),
+                Math.sin(latR)
+        };
+        Best best = new Best(limit, metersToChordSquared(maxMeters));
+        search(0, keys.length, 0, q, accept, best);
+
+        List<Hit<K>> hits = new ArrayList<>(best.size);
+        for (int i = 0; i < best.size; i++) {
+            hits.add(new Hit<>(key(best.idx[i]), chordSquaredToMeters(best.dist2[i])));
+        }
+        return hits;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi, mid, depth % 3);
+        live[mid] = hi - lo;
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    private void search(int lo, int hi, int depth, double[] q, Predicate<K> accept, Best best) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (live[mid] == 0) {
+            return;
+        }
+        if (!removed[mid] && accept.test(key(mid))) {
+            double dx = q[0] - xs[mid];
+            double dy = q[1] - ys[mid];
+            double dz = q[2] - zs[mid];
+            best.offer(mid, dx * dx + dy * dy + dz * dz);
+        }
+        int axis = depth % 3;
+        double diff = q[axis] - coord(axis, mid);
+        if (diff < 0) {
+            search(lo, mid, depth + 1, q, accept, best);
+            if (diff * diff <= best.bound()) {
+                search(mid + 1, hi, depth + 1, q, accept, best);
+            }
+        } else {
+            search(mid + 1, hi, depth + 1, q, accept, best);
+            if (diff * diff <= best.bound()) {
+                search(lo, mid, depth + 1, q, accept, best);
+            }
+        }
+    }
+
+    /**
+     * Quickselect on [lo, hi) so that position k holds the median along the axis.
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        int left = lo;
+        int right = hi - 1;
+        while (right > left) {
+            double pivot = coord(axis, (left + right) >>> 1);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coord(axis, i) < pivot) i++;
+                while (coord(axis, j) > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coord(int axis, int i) {
+        return axis == 0 ? xs[i] : axis == 1 ? ys[i] : zs[i];
+    }
+
+    private void swap(int a, int b) {
+        Object k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        double t = xs[a];
+        xs[a] = xs[b];
+        xs[b] = t;
+        t = ys[a];
+        ys[a] = ys[b];
+        ys[b] = t;
+        t = zs[a];
+        zs[a] = zs[b];
+        zs[b] = t;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int i) {
+        return (K) keys[i];
+    }
+
+    static double metersToChordSquared(double meters) {
+        if (Double.isInfinite(meters)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double angle = Math.min(Math.PI, Math.max(0, meters) / GeoUtil.EARTH_RADIUS_M);
+        double chord = 2 * Math.sin(angle / 2);
+        return chord * chord;
+    }
+
+    static double chordSquaredToMeters(double chordSquared) {
+        double halfChord = Math.min(1.0, Math.sqrt(chordSquared) / 2);
+        return 2 * GeoUtil.EARTH_RADIUS_M * Math.asin(halfChord);
+    }
+
+    /**
+     * Bounded candidate list kept sorted by distance (limits are small, so insertion beats a heap).
+     */
+    private static final class Best {
+        private final int[] idx;
+        private final double[] dist2;
+        private final double radius2;
+        private int size;
+
+        Best(int limit, double radius2) {
+            this.idx = new int[limit];
+            this.dist2 = new double[limit];
+            this.radius2 = radius2;
+        }
+
+        double bound() {
+            return size < idx.length ? radius2 : dist2[size - 1];
+        }
+
+        void offer(int i, double d2) {
+            if (d2 > bound() || (size == idx.length && d2 == dist2[size - 1])) {
+                return;
+            }
+            int pos = size < idx.length ? size++ : size - 1;
+            while (pos > 0 && dist2[pos - 1] > d2) {
+                idx[pos] = idx[pos - 1];
+                dist2[pos] = dist2[pos - 1];
+                pos--;
+            }
+            idx[pos] = i;
+            dist2[pos] = d2;
+        }
+    }
+}
@@ -2,7 +2,7 @@ package com.example.dronedelivery.service;
 
 public final class GeoUtil {
 
-    private static final double EARTH_RADIUS_M = 6371000.0;
+    static final double EARTH_RADIUS_M = 6371000.0;
 
     private GeoUtil() {}
 
@@ -0,0 +1,60 @@
+package com.example.dronedelivery.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * When each ACTIVE or FIXED drone's heartbeat runs out, kept in a {@link TimingWheel} so a heartbeat re-arms its drone
+ * in O(1) and the stale check only touches the drones that are actually due.
+ * <p>
+ * An expiry is only a hint: the caller confirms it against the drone's latest heartbeat before marking it broken,
+ * since another node may have received that heartbeat.
+ */
+@Component
+public class HeartbeatDeadlines {
+
+    private final Duration timeout;
+    private final TimingWheel<UUID> wheel;
+
+    public HeartbeatDeadlines(
+            @Value("${app.scheduler.heartbeat-timeout-minutes:5}") long timeoutMinutes,
+            @Value("${app.scheduler.heartbeat-check-millis:1000}") long checkMillis
+    ) {
+        this.timeout = Duration.ofMinutes(timeoutMinutes);
+        long tickMillis = Math.max(1, checkMillis);
+        int buckets = (int) Math.min(1 << 16, timeout.toMillis() / tickMillis + 1);
+        this.wheel = new TimingWheel<>(tickMillis, buckets, System.currentTimeMillis());
+    }
+
+    /**
+     * @param lastHeartbeatAt the drone's latest heartbeat; {@code null} gives it a full timeout from now
+     */
+    public void arm(UUID droneId, Instant lastHeartbeatAt) {
+        Instant from = lastHeartbeatAt == null ? Instant.now() : lastHeartbeatAt;
+        wheel.arm(droneId, from.plus(timeout).toEpochMilli());
+    }
+
+    public void disarm(UUID droneId) {
+        wheel.disarm(droneId);
+    }
+
+    /**
+     * Drones whose deadline passed since the last call; they are no longer armed.
+     */
+    public List<UUID> expired(Instant now) {
+        return wheel.advance(now.toEpochMilli());
+    }
+
+    public boolean isStale(Instant lastHeartbeatAt, Instant now) {
+        return lastHeartbeatAt == null || lastHeartbeatAt.isBefore(now.minus(timeout));
+    }
+
+    public int armed() {
+        return wheel.size();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.dronedelivery.service;
+
+import java.util.Arrays;
+
+/**
+ * Exact min-cost assignment on a dense cost matrix (Hungarian method with potentials, O(n^2 * m)).
+ * Meant for small batches; use {@link AuctionSolver} when the matrix gets large.
+ */
+public final class HungarianSolver {
+
+    /**
+     * Cost for pairs that must never be matched. Finite so the potentials stay well-defined.
+     */
+    public static final double INFEASIBLE = 1e12;
+
+    private HungarianSolver() {}
+
+    /**
+     * @param cost rows x cols matrix, {@link #INFEASIBLE} for forbidden pairs
+     * @return for each row the matched column, or -1 when the row is left unmatched
+     */
+    public static int[] solve(double[][] cost) {
+        int rows = cost.length;
+        if (rows == 0) {
+            return new int[0];
+        }
+        int cols = cost[0].length;
+        if (cols == 0) {
+            int[] none = new int[rows];
+            Arrays.fill(none, -1);
+            return none;
+        }
+        if (rows > cols) {
+            double[][] transposed = new double[cols][rows];
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    transposed[j][i] = cost[i][j];
+                }
+            }
+            int[] byCol = solve(transposed);
+            int[] result = new int[rows];
+            Arrays.fill(result, -1);
+            for (int j = 0; j < cols; j++) {
+                if (byCol[j] >= 0) {
+                    result[byCol[j]] = j;
+                }
+            }
+            return result;
+        }
+
+        // 1-indexed arrays; column 0 is the virtual start column.
+        double[] u = new double[rows + 1];
+        double[] v = new double[cols + 1];
+        int[] match = new int[cols + 1];
+        int[] way = new int[cols + 1];
+        double[] minv = new double[cols + 1];
+        boolean[] used = new boolean[cols + 1];
+
+        for (int i = 1; i <= rows; i++) {
+            match[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            do {
+                used[j0] = true;
+                int i0 = match[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                for (int j = 1; j <= cols; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double cur = cost[i0 - 1][j - 1] - u[i0] - v[j];
+                    if (cur < minv[j]) {
+                        minv[j] = cur;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+                for (int j = 0; j <= cols; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (match[j0] != 0);
+            do {
+                int j1 = way[j0];
+                match[j0] = match[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] result = new int[rows];
+        Arrays.fill(result, -1);
+        for (int j = 1; j <= cols; j++) {
+            if (match[j] != 0 && cost[match[j] - 1][j - 1] < INFEASIBLE) {
+                result[match[j] - 1] = j - 1;
+            }
+        }
+        return result;
+    }
+}
@@ -12,15 +12,22 @@ public class IdentityService {
 
     private final DroneRepository droneRepository;
     private final EndUserRepository endUserRepository;
+    private final HeartbeatDeadlines heartbeatDeadlines;
 
-    public IdentityService(DroneRepository droneRepository, EndUserRepository endUserRepository) {
+    public IdentityService(DroneRepository droneRepository, EndUserRepository endUserRepository, HeartbeatDeadlines heartbeatDeadlines) {
         this.droneRepository = droneRepository;
         this.endUserRepository = endUserRepository;
+        this.heartbeatDeadlines = heartbeatDeadlines;
     }
 
     @Transactional
     public Drone getOrCreateDrone(String name) {
-        return droneRepository.findByName(name).orElseGet(() -> droneRepository.save(new Drone(name)));
+        return droneRepository.findByName(name).orElseGet(() -> {
+            Drone drone = droneRepository.save(new Drone(name));
+            // A new drone gets a full timeout to send its first heartbeat.
+            heartbeatDeadlines.arm(drone.getId(), null);
+            return drone;
+        });
     }
 
     @Transactional
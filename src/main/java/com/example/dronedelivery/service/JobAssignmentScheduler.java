@@ -2,145 +2,232 @@ package com.example.dronedelivery.service;
 
 import com.example.dronedelivery.domain.Drone;
 import com.example.dronedelivery.domain.DroneStatus;
-import com.example.dronedelivery.domain.Job;
-import com.example.dronedelivery.domain.JobStatus;
 import com.example.dronedelivery.repo.DroneRepository;
-import com.example.dronedelivery.repo.JobRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class JobAssignmentScheduler {
     private static final Logger logger = LoggerFactory.getLogger(JobAssignmentScheduler.class);
+    private static final int MAX_RETRIES_PER_ROUND = 2;
+    public static final String ASSIGNMENT_LEASE = "job-assignment";
+    public static final String STALE_DRONES_LEASE = "stale-drones";
     private final DroneRepository droneRepository;
-    private final JobRepository jobRepository;
     private final DeliveryServiceHelper helper;
-    private final long heartbeatTimeoutMinutes;
+    private final AssignmentPlanner planner;
+    private final AssignmentCommitter committer;
+    private final OpenJobQueue openJobQueue;
+    private final SchedulerLeases leases;
+    private final DronePositions dronePositions;
+    private final HeartbeatDeadlines heartbeatDeadlines;
+    /**
+     * Fencing token of the stale-drones lease when this node last swept all drones; -1 before the first sweep.
+     */
+    private volatile long sweptWithToken = -1;
+
+    /**
+     * Outcome of the most recent round that had both open jobs and free drones.
+     *
+     * @param partitions per-cell planning timings of the first plan; empty when the round was not partitioned
+     */
+    public record AssignmentRound(
+            AssignmentMode mode,
+            int openJobs,
+            int availableDrones,
+            int planned,
+            int assigned,
+            int lostRaces,
+            double plannedDistanceMeters,
+            Double greedyDistanceMeters,
+            long durationMillis,
+            Instant completedAt,
+            List<AssignmentPlanner.PartitionTiming> partitions
+    ) {}
+
+    private volatile AssignmentRound lastRound;
 
     public JobAssignmentScheduler(
             DroneRepository droneRepository,
-            JobRepository jobRepository,
             DeliveryServiceHelper helper,
-            @Value("${app.scheduler.heartbeat-timeout-minutes:5}") long heartbeatTimeoutMinutes
+            AssignmentPlanner planner,
+            AssignmentCommitter committer,
+            OpenJobQueue openJobQueue,
+            SchedulerLeases leases,
+            DronePositions dronePositions,
+            HeartbeatDeadlines heartbeatDeadlines
     ) {
         this.droneRepository = droneRepository;
-        this.jobRepository = jobRepository;
         this.helper = helper;
-        this.heartbeatTimeoutMinutes = heartbeatTimeoutMinutes;
+        this.planner = planner;
+        this.committer = committer;
+        this.openJobQueue = openJobQueue;
+        this.leases = leases;
+        this.dronePositions = dronePositions;
+        this.heartbeatDeadlines = heartbeatDeadlines;
     }
 
-    @Scheduled(fixedDelayString = "${app.scheduler.assignment-interval-seconds:10}000")
-    public void assignJobsToClosestDrones() {
-        List<Job> openJobs = jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.OPEN);
+    /**
+     * Runs one assignment round if this node holds the assignment lease.
+     *
+     * @return number of open jobs still waiting after this round; 0 when another node is dispatching
+     */
+    public int assignJobsToClosestDrones() {
+        return leases.current(ASSIGNMENT_LEASE).map(this::assignJobsToClosestDrones).orElse(0);
+    }
+
+    /**
+     * Runs one assignment round under {@code lease}. Triggered by {@link DispatchTrigger}; rounds never overlap.
+     *
+     * @return number of open jobs still waiting after this round
+     */
+    public synchronized int assignJobsToClosestDrones(SchedulerLeases.Lease lease) {
+        if (leases.isEnabled()) {
+            // Jobs opened or reserved through other nodes only reach this node's queue through the database.
+            openJobQueue.reconcile();
+        }
+        List<OpenJob> openJobs = openJobQueue.snapshot();
         if (openJobs.isEmpty()) {
-            return;
+            return 0;
         }
 
         List<Drone> availableDrones = droneRepository
                 .findByStatusInAndCurrentJobIdIsNull(EnumSet.of(DroneStatus.ACTIVE, DroneStatus.FIXED))
                 .stream()
+                .map(dronePositions::overlay)
                 .filter(drone -> drone.getLastLat() != null && drone.getLastLng() != null)
                 .toList();
 
         if (availableDrones.isEmpty()) {
             logger.debug("Job assignment skipped: no available drones for {} open jobs.", openJobs.size());
-            return;
+            return openJobs.size();
         }
 
-        Set<UUID> reservedDroneIds = availableDrones.stream()
-                .map(Drone::getId)
-                .collect(Collectors.toSet());
-
-        for (Job job : openJobs) {
-            UUID excludedDroneId = job.getExcludedDroneId();
-            Drone closest = availableDrones.stream()
-                    .filter(drone -> reservedDroneIds.contains(drone.getId()))
-                    .filter(drone -> excludedDroneId == null || !excludedDroneId.equals(drone.getId()))
-                    .min(Comparator.comparingDouble(drone -> distanceMeters(job, drone)))
-                    .orElse(null);
-
-            if (closest == null) {
-                continue;
+        long startedAt = System.nanoTime();
+        Instant now = Instant.now();
+        AssignmentPlanner.Plan firstPlan = null;
+        int planned = 0;
+        int assigned = 0;
+        int lostRaces = 0;
+
+        // Pairs that lost a race are re-planned against the drones that are still free, within the same round.
+        List<OpenJob> pendingJobs = openJobs;
+        List<Drone> freeDrones = availableDrones;
+        for (int attempt = 0; attempt <= MAX_RETRIES_PER_ROUND && !pendingJobs.isEmpty() && !freeDrones.isEmpty(); attempt++) {
+            AssignmentPlanner.Plan plan = planner.plan(pendingJobs, freeDrones, now);
+            if (firstPlan == null) {
+                firstPlan = plan;
             }
-
-            boolean assigned = tryAssign(job.getId(), closest.getId());
-            if (assigned) {
-                logger.info("Assigned job {} to drone {}.", job.getId(), closest.getId());
-                reservedDroneIds.remove(closest.getId());
+            if (plan.assignments().isEmpty()) {
+                break;
+            }
+            planned += plan.assignments().size();
+
+            AssignmentCommitter.Result result;
+            try {
+                result = committer.commit(lease, plan.assignments());
+            } catch (SchedulerLeases.LeaseLostException ex) {
+                logger.info("Assignment round abandoned: {}", ex.getMessage());
+                return 0;
             }
+            for (AssignmentPlanner.PlannedAssignment a : result.committed()) {
+                logger.info("Assigned job {} to drone {} ({} m away).", a.jobId(), a.droneId(), Math.round(a.distanceMeters()));
+            }
+            assigned += result.committed().size();
+            lostRaces += result.lostDroneIds().size();
+            if (result.closedJobIds().isEmpty() && result.lostDroneIds().isEmpty()) {
+                break;
+            }
+
+            Set<UUID> doneJobs = new HashSet<>(result.closedJobIds());
+            Set<UUID> usedDrones = new HashSet<>(result.lostDroneIds());
+            result.committed().forEach(a -> {
+                doneJobs.add(a.jobId());
+                usedDrones.add(a.droneId());
+            });
+            freeDrones = freeDrones.stream().filter(d -> !usedDrones.contains(d.getId())).toList();
+            pendingJobs = pendingJobs.stream().filter(j -> !doneJobs.contains(j.id())).toList();
         }
-    }
 
-    @Scheduled(fixedDelayString = "#{${app.scheduler.heartbeat-timeout-minutes:5} * 60000}")
-    @Transactional
-    public void markStaleDronesBroken() {
-        Instant cutoff = Instant.now().minus(Duration.ofMinutes(heartbeatTimeoutMinutes));
-        List<Drone> drones = droneRepository.findByStatusIn(EnumSet.of(DroneStatus.ACTIVE, DroneStatus.FIXED));
-        int markedBroken = 0;
-        for (Drone drone : drones) {
-            Instant lastHeartbeatAt = drone.getLastHeartbeatAt();
-            if (lastHeartbeatAt == null || lastHeartbeatAt.isBefore(cutoff)) {
-                helper.markDroneBrokenInternal(drone);
-                markedBroken++;
-                logger.warn("Drone {} marked BROKEN due to stale heartbeat (last={}).", drone.getId(), lastHeartbeatAt);
-            }
+        lastRound = new AssignmentRound(
+                firstPlan.mode(),
+                openJobs.size(),
+                availableDrones.size(),
+                planned,
+                assigned,
+                lostRaces,
+                firstPlan.totalDistanceMeters(),
+                firstPlan.greedyDistanceMeters(),
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis(),
+                Instant.now(),
+                firstPlan.partitions()
+        );
+        if (!firstPlan.partitions().isEmpty()) {
+            logger.debug("Assignment round planned in {} partition(s): {}.", firstPlan.partitions().size(), firstPlan.partitions());
         }
-        if (markedBroken > 0) {
-            logger.info("Marked {} drone(s) as BROKEN due to stale heartbeats.", markedBroken);
+        if (firstPlan.greedyDistanceMeters() != null) {
+            logger.info("Assignment round ({}): {} job(s) assigned, {} m planned in total, greedy would plan {} m.",
+                    firstPlan.mode(), assigned, Math.round(firstPlan.totalDistanceMeters()), Math.round(firstPlan.greedyDistanceMeters()));
         }
+        return openJobs.size() - assigned;
     }
 
-    @Transactional
-    public boolean tryAssign(UUID jobId, UUID droneId) {
-        try {
-            Job job = jobRepository.findById(jobId).orElseThrow();
-            if (job.getStatus() != JobStatus.OPEN) {
-                return false;
-            }
-
-            Drone drone = droneRepository.findById(droneId).orElseThrow();
-            if (drone.getStatus() == DroneStatus.BROKEN || drone.getCurrentJobId() != null) {
-                return false;
-            }
+    public AssignmentRound lastRound() {
+        return lastRound;
+    }
 
-            if (job.getExcludedDroneId() != null && job.getExcludedDroneId().equals(droneId)) {
-                return false;
+    /**
+     * Breaks drones whose heartbeat deadline expired, within one check interval of the timeout. Every node advances
+     * its deadlines so they do not pile up, but only the lease holder acts on them; when the lease (re)arrives here,
+     * all drones are swept once so deadlines armed on other nodes are covered.
+     */
+    @Scheduled(fixedDelayString = "${app.scheduler.heartbeat-check-millis:1000}")
+    public void expireStaleDrones() {
+        List<UUID> expired = heartbeatDeadlines.expired(Instant.now());
+        Optional<SchedulerLeases.Lease> lease = leases.current(STALE_DRONES_LEASE);
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            int markedBroken;
+            if (lease.get().token() != sweptWithToken) {
+                markedBroken = helper.sweepStaleDrones(lease.get());
+                sweptWithToken = lease.get().token();
+            } else if (!expired.isEmpty()) {
+                markedBroken = helper.markStaleDronesBroken(lease.get(), expired);
+            } else {
+                return;
             }
-
-            if (drone.getLastLat() == null || drone.getLastLng() == null) {
-                return false;
+            if (markedBroken > 0) {
+                logger.info("Marked {} drone(s) as BROKEN due to stale heartbeats.", markedBroken);
             }
-
-            job.setAssignedDroneId(droneId);
-            job.setStatus(JobStatus.RESERVED);
-            job.setReservedAt(Instant.now());
-            jobRepository.save(job);
-
-            drone.setCurrentJobId(job.getId());
-            droneRepository.save(drone);
-            return true;
-        } catch (OptimisticLockingFailureException ex) {
-            logger.debug("Optimistic lock failure while assigning job {} to drone {}.", jobId, droneId);
-            return false;
+        } catch (SchedulerLeases.LeaseLostException ex) {
+            logger.info(ex.getMessage());
         }
     }
 
-    private double distanceMeters(Job job, Drone drone) {
-        return GeoUtil.haversineMeters(
-                job.getPickupLat(),
-                job.getPickupLng(),
-                drone.getLastLat(),
-                drone.getLastLng()
-        );
+    /**
+     * Safety net behind {@link #expireStaleDrones()}: checks every ACTIVE or FIXED drone.
+     */
+    @Scheduled(fixedDelayString = "#{${app.scheduler.heartbeat-sweep-minutes:30} * 60000}",
+            initialDelayString = "#{${app.scheduler.heartbeat-sweep-minutes:30} * 60000}")
+    public void markStaleDronesBroken() {
+        Optional<SchedulerLeases.Lease> lease = leases.current(STALE_DRONES_LEASE);
+        if (lease.isEmpty()) {
+            return;
+        }
+        try {
+            int markedBroken = helper.sweepStaleDrones(lease.get());
+            if (markedBroken > 0) {
+                logger.info("Marked {} drone(s) as BROKEN due to stale heartbeats.", markedBroken);
+            }
+        } catch (SchedulerLeases.LeaseLostException ex) {
+            logger.info(ex.getMessage());
+        }
     }
 }
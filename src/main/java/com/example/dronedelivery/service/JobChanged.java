@@ -0,0 +1,15 @@
+package com.example.dronedelivery.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when jobs changed state (reserved, picked up, finished, canceled) or were edited.
+ */
+public record JobChanged(Collection<UUID> jobIds) {
+
+    public static JobChanged of(UUID jobId) {
+        return new JobChanged(List.of(jobId));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.dronedelivery.service;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination on {@code (createdAt, id)} for the list endpoints.
+ * <p>
+ * A page continues strictly after the last row of the previous one, passed back as an opaque {@link Cursor}, so the
+ * database seeks straight to it through the {@code (…, created_at, id)} indexes instead of skipping an offset: deep
+ * pages cost the same as the first. Rows inserted while a client pages through do not shift later pages.
+ */
+@Component
+public class KeysetPager {
+
+    public enum Direction {
+        OLDEST_FIRST,
+        NEWEST_FIRST
+    }
+
+    /**
+     * Position of the last row of a page.
+     */
+    public record Cursor(Instant createdAt, UUID id) {
+
+        public String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @return null for a missing cursor, i.e. the first page
+         */
+        public static Cursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new Cursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+            } catch (RuntimeException ex) {
+                throw ApiException.badRequest("Invalid page cursor.");
+            }
+        }
+    }
+
+    /**
+     * @param next cursor of the following page, or null if this is the last one
+     */
+    public record Page<T>(List<T> items, Cursor next) {}
+
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public KeysetPager(
+            @Value("${app.pagination.default-limit:50}") int defaultLimit,
+            @Value("${app.pagination.max-limit:500}") int maxLimit
+    ) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * One page of the rows matching {@code filter}, after {@code after} in {@code direction} order. {@code limit}
+     * defaults to {@code app.pagination.default-limit} and is capped at {@code app.pagination.max-limit}.
+     */
+    public <T> Page<T> page(JpaSpecificationExecutor<T> repository, Specification<T> filter, Cursor after, Integer limit,
+                            Direction direction, Function<T, Cursor> key) {
+        int size = limit(limit);
+        Sort sort = direction == Direction.NEWEST_FIRST
+                ? Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"))
+                : Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("id"));
+        // One extra row tells whether another page follows.
+        List<T> rows = repository.findBy(filter.and(after(after, direction)), q -> q.sortBy(sort).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new Page<>(items, key.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Rows whose {@code attribute} equals {@code value}; matches everything when {@code value} is null.
+     */
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? null : cb.equal(root.get(attribute), value);
+    }
+
+    /**
+     * Rows created in {@code [from, to)}; either bound may be null.
+     */
+    public static <T> Specification<T> createdBetween(Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw ApiException.badRequest("from must be before to.");
+        }
+        return (root, query, cb) -> {
+            Path<Instant> createdAt = root.get("createdAt");
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(createdAt, from), cb.lessThan(createdAt, to));
+            }
+            if (from != null) {
+                return cb.greaterThanOrEqualTo(createdAt, from);
+            }
+            return to == null ? null : cb.lessThan(createdAt, to);
+        };
+    }
+
+    /**
+     * {@code requested} checked and capped like a page size; also used by lists that are not keyset pages.
+     */
+    public int limit(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        if (requested < 1) {
+            throw ApiException.badRequest("limit must be at least 1.");
+        }
+        return Math.min(requested, maxLimit);
+    }
+
+    private static <T> Specification<T> after(Cursor cursor, Direction direction) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            Path<Instant> createdAt = root.get("createdAt");
+            Path<UUID> id = root.get("id");
+            if (direction == Direction.NEWEST_FIRST) {
+                return cb.or(
+                        cb.lessThan(createdAt, cursor.createdAt()),
+                        cb.and(cb.equal(createdAt, cursor.createdAt()), cb.lessThan(id, cursor.id()))
+                );
+            }
+            return cb.or(
+                    cb.greaterThan(createdAt, cursor.createdAt()),
+                    cb.and(cb.equal(createdAt, cursor.createdAt()), cb.greaterThan(id, cursor.id()))
+            );
+        };
+    }
+}
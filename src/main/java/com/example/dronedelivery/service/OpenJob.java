@@ -0,0 +1,34 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.Job;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What the dispatcher needs to know about an OPEN job, detached from the persistence context.
+ */
+public record OpenJob(
+        UUID id,
+        long version,
+        double pickupLat,
+        double pickupLng,
+        UUID excludedDroneId,
+        Instant createdAt
+) {
+
+    public static OpenJob of(Job job) {
+        return new OpenJob(
+                job.getId(),
+                job.getVersion(),
+                job.getPickupLat(),
+                job.getPickupLng(),
+                job.getExcludedDroneId(),
+                job.getCreatedAt()
+        );
+    }
+
+    public OpenJob withVersion(long version) {
+        return new OpenJob(id, version, pickupLat, pickupLng, excludedDroneId, createdAt);
+    }
+}
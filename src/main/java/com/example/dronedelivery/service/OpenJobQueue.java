@@ -0,0 +1,220 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.Job;
+import com.example.dronedelivery.domain.JobStatus;
+import com.example.dronedelivery.repo.JobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * In-memory view of OPEN jobs, oldest first, so the dispatcher does not query and hydrate every open job each round.
+ * <p>
+ * Services report job creation, reservation, cancellation and handoff; changes are applied after the surrounding
+ * transaction commits. A periodic check compares the OPEN row count and version sum with the database and reloads
+ * on any drift (e.g. rows changed outside the application).
+ * <p>
+ * Pickup points are also kept in a {@link GeoIndex} for nearest-job lookups. The index is static, so jobs opened or
+ * changed since it was built sit in a small side list that is scanned linearly; the index is rebuilt once that list
+ * outgrows {@link #MIN_UNINDEXED} or a sixteenth of the queue.
+ */
+@Component
+public class OpenJobQueue {
+    private static final Logger logger = LoggerFactory.getLogger(OpenJobQueue.class);
+
+    private static final Comparator<OpenJob> OLDEST_FIRST = Comparator
+            .comparing(OpenJob::createdAt)
+            .thenComparing(OpenJob::id);
+
+    private static final int MIN_UNINDEXED = 64;
+
+    public record Nearby(OpenJob job, double distanceMeters) {}
+
+    private final JobRepository jobRepository;
+
+    private final TreeSet<OpenJob> byAge = new TreeSet<>(OLDEST_FIRST);
+    private final Map<UUID, OpenJob> byId = new HashMap<>();
+    private long versionSum;
+    private boolean loaded;
+    /**
+     * Null until the first lookup and after a reload.
+     */
+    private GeoIndex<UUID> spatial;
+    private final Map<UUID, OpenJob> unindexed = new HashMap<>();
+
+    public OpenJobQueue(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    /**
+     * Open jobs, oldest first.
+     */
+    public List<OpenJob> snapshot() {
+        synchronized (this) {
+            if (loaded) {
+                return new ArrayList<>(byAge);
+            }
+        }
+        reload();
+        synchronized (this) {
+            return new ArrayList<>(byAge);
+        }
+    }
+
+    /**
+     * Up to {@code limit} open jobs whose pickup is within {@code radiusMeters}, closest first, leaving out the jobs
+     * {@code droneId} is excluded from.
+     */
+    public List<Nearby> nearest(double lat, double lng, int limit, double radiusMeters, UUID droneId) {
+        synchronized (this) {
+            if (loaded) {
+                return nearestLoaded(lat, lng, limit, radiusMeters, droneId);
+            }
+        }
+        reload();
+        synchronized (this) {
+            return nearestLoaded(lat, lng, limit, radiusMeters, droneId);
+        }
+    }
+
+    /**
+     * Adds or refreshes the job once the current transaction commits. Ignored if the job is not OPEN.
+     */
+    public void jobOpened(Job job) {
+        // Read the entity after commit: flushing is what bumps its version.
+        afterCommit(() -> {
+            if (job.getStatus() == JobStatus.OPEN) {
+                put(OpenJob.of(job));
+            } else {
+                remove(job.getId());
+            }
+        });
+    }
+
+    public void jobClosed(UUID jobId) {
+        afterCommit(() -> remove(jobId));
+    }
+
+    public void jobsClosed(Collection<UUID> jobIds) {
+        afterCommit(() -> jobIds.forEach(this::remove));
+    }
+
+    /**
+     * For jobs still OPEN whose row version moved by a bulk update.
+     */
+    public void jobsVersionBumped(Collection<UUID> jobIds, int by) {
+        afterCommit(() -> {
+            synchronized (this) {
+                for (UUID jobId : jobIds) {
+                    OpenJob current = byId.get(jobId);
+                    if (current != null) {
+                        put(current.withVersion(current.version() + by));
+                    }
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "#{${app.scheduler.open-job-reconcile-seconds:30} * 1000}")
+    public void reconcile() {
+        JobRepository.StatusFingerprint db = jobRepository.fingerprint(JobStatus.OPEN);
+        synchronized (this) {
+            if (loaded && db.getJobs() == byId.size() && db.getVersionSum() == versionSum) {
+                return;
+            }
+            if (loaded) {
+                logger.info("Open job queue drifted from the database ({} jobs in memory, {} in db); reloading.",
+                        byId.size(), db.getJobs());
+            }
+        }
+        reload();
+    }
+
+    private void reload() {
+        List<OpenJob> fresh = jobRepository.findByStatusOrderByCreatedAtAsc(JobStatus.OPEN)
+                .stream()
+                .map(OpenJob::of)
+                .toList();
+        synchronized (this) {
+            byAge.clear();
+            byId.clear();
+            versionSum = 0;
+            spatial = null;
+            unindexed.clear();
+            fresh.forEach(this::put);
+            loaded = true;
+        }
+    }
+
+    private List<Nearby> nearestLoaded(double lat, double lng, int limit, double radiusMeters, UUID droneId) {
+        if (spatial == null || unindexed.size() > Math.max(MIN_UNINDEXED, byId.size() / 16)) {
+            spatial = GeoIndex.build(byId.values(), OpenJob::id, OpenJob::pickupLat, OpenJob::pickupLng);
+            unindexed.clear();
+        }
+        List<Nearby> found = new ArrayList<>();
+        for (GeoIndex.Hit<UUID> hit : spatial.nearest(lat, lng, limit, radiusMeters, id -> allowed(byId.get(id), droneId))) {
+            found.add(new Nearby(byId.get(hit.key()), hit.distanceMeters()));
+        }
+        for (OpenJob job : unindexed.values()) {
+            if (allowed(job, droneId)) {
+                double meters = GeoUtil.haversineMeters(lat, lng, job.pickupLat(), job.pickupLng());
+                if (meters <= radiusMeters) {
+                    found.add(new Nearby(job, meters));
+                }
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            found.sort(Comparator.comparingDouble(Nearby::distanceMeters));
+        }
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private static boolean allowed(OpenJob job, UUID droneId) {
+        return job != null && !droneId.equals(job.excludedDroneId());
+    }
+
+    private synchronized void put(OpenJob job) {
+        OpenJob previous = byId.put(job.id(), job);
+        if (previous != null) {
+            byAge.remove(previous);
+            versionSum -= previous.version();
+        }
+        byAge.add(job);
+        versionSum += job.version();
+        if (spatial != null) {
+            // The pickup may have moved (admin edit); the side list holds the current one.
+            spatial.remove(job.id());
+            unindexed.put(job.id(), job);
+        }
+    }
+
+    private synchronized void remove(UUID jobId) {
+        OpenJob previous = byId.remove(jobId);
+        if (previous != null) {
+            byAge.remove(previous);
+            versionSum -= previous.version();
+        }
+        if (spatial != null) {
+            spatial.remove(jobId);
+            unindexed.remove(jobId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
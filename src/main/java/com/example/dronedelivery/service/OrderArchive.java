@@ -0,0 +1,68 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.ArchivedJob;
+import com.example.dronedelivery.domain.ArchivedOrder;
+import com.example.dronedelivery.repo.ArchiveJdbcRepository;
+import com.example.dronedelivery.repo.ArchivedJobRepository;
+import com.example.dronedelivery.repo.ArchivedOrderRepository;
+import com.example.dronedelivery.repo.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cold storage of finished orders and their jobs. An order is archived with all of its jobs once it and they are
+ * finished and it is older than {@code app.archive.min-age-days}, so the hot tables, their indexes and every query on
+ * them only carry the recent and unfinished rows. Reads by id fall back to the archive here; listings and exports
+ * cover the hot tables only.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderArchive {
+
+    /**
+     * @param orders orders moved
+     * @param jobs   jobs moved with them
+     */
+    public record Chunk(int orders, int jobs) {}
+
+    private final ArchiveJdbcRepository archiveJdbcRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedJobRepository archivedJobRepository;
+    private final SchedulerLeases leases;
+
+    /**
+     * Moves up to {@code limit} of the oldest archivable orders created before {@code before}, in one transaction.
+     * Archived rows do not change, so cached read models of them stay valid.
+     *
+     * @throws SchedulerLeases.LeaseLostException if another node took over archiving; nothing is moved
+     */
+    @Transactional
+    public Chunk archiveChunk(SchedulerLeases.Lease lease, Instant before, int limit) {
+        leases.checkFence(lease);
+        List<UUID> orderIds = archiveJdbcRepository.findArchivable(before, limit);
+        int jobs = archiveJdbcRepository.move(orderIds, Instant.now());
+        return new Chunk(orderIds.size(), jobs);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedOrder> orders(Collection<UUID> orderIds) {
+        return archivedOrderRepository.findAllById(orderIds);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedJob> jobs(Collection<UUID> jobIds) {
+        return archivedJobRepository.findAllById(jobIds);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<OrderRepository.OrderVersionView> versionView(UUID orderId) {
+        return archivedOrderRepository.findVersionView(orderId);
+    }
+}
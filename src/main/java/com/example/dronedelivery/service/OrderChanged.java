@@ -0,0 +1,16 @@
+package com.example.dronedelivery.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when orders were submitted or changed: withdrawn, edited, picked up, finished or handed off. Changes that
+ * also move a drone come with a {@link DroneAssignmentChanged} as well.
+ */
+public record OrderChanged(Collection<UUID> orderIds) {
+
+    public static OrderChanged of(UUID orderId) {
+        return new OrderChanged(List.of(orderId));
+    }
+}
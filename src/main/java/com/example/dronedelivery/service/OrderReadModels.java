@@ -0,0 +1,178 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.example.dronedelivery.api.dto.OrderDtos;
+import com.example.dronedelivery.domain.ArchivedJob;
+import com.example.dronedelivery.domain.ArchivedOrder;
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.Job;
+import com.example.dronedelivery.repo.JobRepository;
+import com.example.dronedelivery.repo.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cached read models of orders (without progress, which moves with every heartbeat) and jobs, by id.
+ * <p>
+ * Entries are dropped after commit of every transition that publishes {@link OrderChanged} or {@link JobChanged}, so a
+ * node always reads its own writes. Writes made through other nodes are seen once the entry expires, after at most
+ * {@code ttl-seconds}, or as soon as a caller asks for a version newer than the cached one.
+ * <p>
+ * Ids missing from the hot tables are looked up in the {@link OrderArchive}.
+ */
+@Component
+public class OrderReadModels {
+
+    /**
+     * Most ids per load query, to keep the {@code IN} list within what databases accept.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private record Versioned<T>(long version, T value) {}
+
+    private final OrderRepository orderRepository;
+    private final JobRepository jobRepository;
+    private final OrderArchive archive;
+    private final ReadThroughCache<UUID, Versioned<OrderDtos.OrderResponse>> orders;
+    private final ReadThroughCache<UUID, Versioned<DroneDtos.JobResponse>> jobs;
+
+    public OrderReadModels(
+            OrderRepository orderRepository,
+            JobRepository jobRepository,
+            OrderArchive archive,
+            @Value("${app.read-cache.max-orders:10000}") int maxOrders,
+            @Value("${app.read-cache.max-jobs:10000}") int maxJobs,
+            @Value("${app.read-cache.ttl-seconds:30}") long ttlSeconds
+    ) {
+        this.orderRepository = orderRepository;
+        this.jobRepository = jobRepository;
+        this.archive = archive;
+        this.orders = new ReadThroughCache<>("orders", maxOrders, ttlSeconds * 1000);
+        this.jobs = new ReadThroughCache<>("jobs", maxJobs, ttlSeconds * 1000);
+    }
+
+    public OrderDtos.OrderResponse order(UUID orderId) {
+        return order(orderId, 0);
+    }
+
+    /**
+     * @param minVersion the cached entry is reloaded if it is older, e.g. written through another node
+     */
+    public OrderDtos.OrderResponse order(UUID orderId, long minVersion) {
+        Versioned<OrderDtos.OrderResponse> order = fresh(orders, orderId, minVersion, this::loadOrders);
+        if (order == null) {
+            throw ApiException.notFound("Order not found: " + orderId);
+        }
+        return order.value();
+    }
+
+    /**
+     * Orders by id; ids that do not exist are left out.
+     */
+    public Map<UUID, OrderDtos.OrderResponse> orders(Collection<UUID> orderIds) {
+        Map<UUID, OrderDtos.OrderResponse> found = new HashMap<>();
+        orders.getAll(orderIds, this::loadOrders).forEach((id, order) -> found.put(id, order.value()));
+        return found;
+    }
+
+    public DroneDtos.JobResponse job(UUID jobId) {
+        return job(jobId, 0);
+    }
+
+    /**
+     * @param minVersion the cached entry is reloaded if it is older, e.g. written through another node
+     */
+    public DroneDtos.JobResponse job(UUID jobId, long minVersion) {
+        Versioned<DroneDtos.JobResponse> job = fresh(jobs, jobId, minVersion, this::loadJobs);
+        if (job == null) {
+            throw ApiException.notFound("Job not found: " + jobId);
+        }
+        return job.value();
+    }
+
+    /**
+     * Jobs by id; ids that do not exist are left out.
+     */
+    public Map<UUID, DroneDtos.JobResponse> jobs(Collection<UUID> jobIds) {
+        Map<UUID, DroneDtos.JobResponse> found = new HashMap<>();
+        jobs.getAll(jobIds, this::loadJobs).forEach((id, job) -> found.put(id, job.value()));
+        return found;
+    }
+
+    public List<ReadThroughCache.Stats> stats() {
+        return List.of(orders.stats(), jobs.stats());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChanged event) {
+        orders.invalidateAll(event.orderIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobChanged(JobChanged event) {
+        jobs.invalidateAll(event.jobIds());
+    }
+
+    private static <T> Versioned<T> fresh(ReadThroughCache<UUID, Versioned<T>> cache, UUID id, long minVersion,
+                                          Function<Collection<UUID>, Map<UUID, Versioned<T>>> loader) {
+        Versioned<T> found = cache.getAll(List.of(id), loader).get(id);
+        if (found != null && found.version() < minVersion) {
+            cache.invalidateAll(List.of(id));
+            found = cache.getAll(List.of(id), loader).get(id);
+        }
+        return found;
+    }
+
+    private Map<UUID, Versioned<OrderDtos.OrderResponse>> loadOrders(Collection<UUID> orderIds) {
+        Map<UUID, Versioned<OrderDtos.OrderResponse>> loaded = new HashMap<>();
+        for (List<UUID> batch : batches(orderIds)) {
+            for (DeliveryOrder order : orderRepository.findAllById(batch)) {
+                loaded.put(order.getId(), new Versioned<>(order.getVersion(), ResponseMapper.toDto(order, null)));
+            }
+        }
+        for (List<UUID> batch : batches(missing(orderIds, loaded))) {
+            for (ArchivedOrder order : archive.orders(batch)) {
+                loaded.put(order.getId(), new Versioned<>(order.getVersion(), ResponseMapper.toDto(order)));
+            }
+        }
+        return loaded;
+    }
+
+    private Map<UUID, Versioned<DroneDtos.JobResponse>> loadJobs(Collection<UUID> jobIds) {
+        Map<UUID, Versioned<DroneDtos.JobResponse>> loaded = new HashMap<>();
+        for (List<UUID> batch : batches(jobIds)) {
+            for (Job job : jobRepository.findAllById(batch)) {
+                loaded.put(job.getId(), new Versioned<>(job.getVersion(), ResponseMapper.toDto(job)));
+            }
+        }
+        for (List<UUID> batch : batches(missing(jobIds, loaded))) {
+            for (ArchivedJob job : archive.jobs(batch)) {
+                loaded.put(job.getId(), new Versioned<>(job.getVersion(), ResponseMapper.toDto(job)));
+            }
+        }
+        return loaded;
+    }
+
+    private static List<UUID> missing(Collection<UUID> ids, Map<UUID, ?> loaded) {
+        return ids.stream().filter(id -> !loaded.containsKey(id)).toList();
+    }
+
+    private static List<List<UUID>> batches(Collection<UUID> ids) {
+        List<UUID> all = new ArrayList<>(ids);
+        List<List<UUID>> batches = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOAD_BATCH_SIZE) {
+            batches.add(all.subList(from, Math.min(all.size(), from + LOAD_BATCH_SIZE)));
+        }
+        return batches;
+    }
+}
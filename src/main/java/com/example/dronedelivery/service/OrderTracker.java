@@ -0,0 +1,459 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.api.dto.OrderDtos;
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.OrderStatus;
+import com.example.dronedelivery.repo.JobRepository;
+import com.example.dronedelivery.repo.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-sent event streams of order status and progress, per order and per end user.
+ * <p>
+ * Every watched order has one {@link Topic} shared by all its watchers, so the work per change does not depend on how
+ * many streams are open. A topic caches the order, its current job's dropoff and assigned drone. Order, job and
+ * assignment events reload only the topics of the orders, current jobs and assigned drones they name, after commit and
+ * all in one batch (two queries). A heartbeat of the assigned drone only updates the topic's position; the new ETA is
+ * computed in memory. A push sends an {@code order} event when the order itself changed and a {@code progress} event
+ * ({@link OrderDtos.ProgressUpdate}) when only the drone moved.
+ * Pushes are coalesced per topic: a topic that changes again while queued is sent once, with its latest state.
+ * <p>
+ * Events and heartbeats handled by other nodes are picked up by a full reload of all watched orders every
+ * {@code refresh-millis}, which also keeps idle connections alive. Streams of an order end once it is finished.
+ */
+@Component
+public class OrderTracker {
+    private static final Logger logger = LoggerFactory.getLogger(OrderTracker.class);
+
+    private static final Set<OrderStatus> FINISHED = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.FAILED, OrderStatus.CANCELED);
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    private static final class Topic {
+        private final UUID orderId;
+        private final UUID endUserId;
+        private final Set<SseEmitter> watchers = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        /**
+         * The order as last loaded, without progress.
+         */
+        private volatile OrderDtos.OrderResponse order;
+        private volatile UUID jobId;
+        private volatile UUID droneId;
+        private volatile double dropoffLat;
+        private volatile double dropoffLng;
+        private volatile DronePositions.Position position;
+
+        // Last state sent; only touched by the push that holds `queued`.
+        private OrderDtos.OrderResponse sentOrder;
+        private OrderDtos.Progress sentProgress;
+
+        private Topic(UUID orderId, UUID endUserId) {
+            this.orderId = orderId;
+            this.endUserId = endUserId;
+        }
+
+        private OrderDtos.Progress progress() {
+            DronePositions.Position p = position;
+            return droneId == null || p == null ? null : DeliveryServiceHelper.progress(p, dropoffLat, dropoffLng);
+        }
+    }
+
+    private final OrderRepository orderRepository;
+    private final JobRepository jobRepository;
+    private final DronePositions dronePositions;
+    private final long timeoutMillis;
+
+    private final Map<UUID, Topic> topics = new ConcurrentHashMap<>();
+    private final Map<UUID, Topic> topicsByJob = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Topic>> topicsByDrone = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<SseEmitter>> userWatchers = new ConcurrentHashMap<>();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "order-tracker-reload");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ExecutorService pushExecutor;
+    private final Set<UUID> pendingReloads = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadQueued = new AtomicBoolean();
+
+    public OrderTracker(
+            OrderRepository orderRepository,
+            JobRepository jobRepository,
+            DronePositions dronePositions,
+            @Value("${app.sse.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${app.sse.push-threads:2}") int pushThreads
+    ) {
+        this.orderRepository = orderRepository;
+        this.jobRepository = jobRepository;
+        this.dronePositions = dronePositions;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.pushExecutor = Executors.newFixedThreadPool(Math.max(1, pushThreads), r -> {
+            Thread t = new Thread(r, "order-tracker-push");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PostConstruct
+    void listenToPositions() {
+        dronePositions.addListener(this::droneMoved);
+    }
+
+    /**
+     * Stream of one order; the caller has checked that the order belongs to the watcher. Starts with the order's
+     * current state.
+     */
+    public SseEmitter watchOrder(DeliveryOrder order) {
+        return watchOrder(ResponseMapper.toDto(order, null));
+    }
+
+    /**
+     * Like {@link #watchOrder(DeliveryOrder)} from a read model, which may come from the archive.
+     */
+    public SseEmitter watchOrder(OrderDtos.OrderResponse order) {
+        SseEmitter emitter = newEmitter();
+        if (FINISHED.contains(order.status())) {
+            send(emitter, "order", order);
+            emitter.complete();
+            return emitter;
+        }
+        Topic topic = topics.computeIfAbsent(order.id(), id -> new Topic(id, order.createdByEndUserId()));
+        topic.watchers.add(emitter);
+        emitter.onCompletion(() -> unwatch(topic, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> emitter.complete());
+        greet(emitter, List.of(topic));
+        return emitter;
+    }
+
+    /**
+     * Stream of all of an end user's unfinished orders, including ones submitted later. Starts with each order's
+     * current state.
+     */
+    public SseEmitter watchUser(UUID endUserId) {
+        SseEmitter emitter = newEmitter();
+        Set<SseEmitter> watchers = userWatchers.compute(endUserId, (id, existing) -> {
+            Set<SseEmitter> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            set.add(emitter);
+            return set;
+        });
+        emitter.onCompletion(() -> unwatchUser(endUserId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> emitter.complete());
+
+        EnumSet<OrderStatus> open = EnumSet.complementOf(EnumSet.copyOf(FINISHED));
+        List<Topic> userTopics = new ArrayList<>();
+        for (DeliveryOrder order : orderRepository.findByCreatedByEndUserIdAndStatusIn(endUserId, open)) {
+            userTopics.add(topics.computeIfAbsent(order.getId(), id -> new Topic(id, endUserId)));
+        }
+        logger.debug("End user {} watching {} order(s) on {} stream(s).", endUserId, userTopics.size(), watchers.size());
+        greet(emitter, userTopics);
+        return emitter;
+    }
+
+    public int watchedOrders() {
+        return topics.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAssignmentChanged(DroneAssignmentChanged event) {
+        // The drone's previous job; a newly assigned job is covered by its JobChanged.
+        Set<UUID> affected = new HashSet<>();
+        for (UUID droneId : event.droneIds()) {
+            Set<Topic> assigned = topicsByDrone.get(droneId);
+            if (assigned != null) {
+                assigned.forEach(t -> affected.add(t.orderId));
+            }
+        }
+        requestReload(affected);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobChanged(JobChanged event) {
+        List<UUID> affected = new ArrayList<>();
+        for (UUID jobId : event.jobIds()) {
+            Topic topic = topicsByJob.get(jobId);
+            if (topic != null) {
+                affected.add(topic.orderId);
+            }
+        }
+        requestReload(affected);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChanged event) {
+        if (topics.isEmpty() && userWatchers.isEmpty()) {
+            return;
+        }
+        requestReload(event.orderIds());
+    }
+
+    /**
+     * Reloads every watched order, picking up changes made through other nodes, and keeps idle streams open.
+     */
+    @Scheduled(fixedDelayString = "${app.sse.refresh-millis:10000}")
+    public void refresh() {
+        if (topics.isEmpty() && userWatchers.isEmpty()) {
+            return;
+        }
+        requestReload(new ArrayList<>(topics.keySet()));
+        pushExecutor.execute(this::keepAlive);
+    }
+
+    private void droneMoved(UUID droneId, DronePositions.Position position) {
+        Set<Topic> moved = topicsByDrone.get(droneId);
+        if (moved == null) {
+            return;
+        }
+        for (Topic topic : moved) {
+            topic.position = position;
+            schedulePush(topic);
+        }
+    }
+
+    private void requestReload(Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        pendingReloads.addAll(orderIds);
+        if (reloadQueued.compareAndSet(false, true)) {
+            reloadExecutor.execute(this::reloadPending);
+        }
+    }
+
+    private void reloadPending() {
+        reloadQueued.set(false);
+        List<UUID> orderIds = new ArrayList<>(pendingReloads);
+        pendingReloads.removeAll(orderIds);
+        for (int from = 0; from < orderIds.size(); from += RELOAD_BATCH_SIZE) {
+            List<UUID> batch = orderIds.subList(from, Math.min(orderIds.size(), from + RELOAD_BATCH_SIZE));
+            try {
+                reload(batch).forEach(this::schedulePush);
+            } catch (RuntimeException ex) {
+                logger.warn("Could not reload {} watched order(s).", batch.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the topics of {@code orderIds} from the database, creating topics for new orders of watching users.
+     * Synchronized because new watchers load their topics on the request thread.
+     *
+     * @return the refreshed topics
+     */
+    private synchronized List<Topic> reload(Collection<UUID> orderIds) {
+        List<DeliveryOrder> orders = orderRepository.findAllById(orderIds);
+        List<Topic> reloaded = new ArrayList<>();
+        List<UUID> jobIds = new ArrayList<>();
+        for (DeliveryOrder order : orders) {
+            Topic topic = topics.get(order.getId());
+            if (topic == null && userWatchers.containsKey(order.getCreatedByEndUserId()) && !FINISHED.contains(order.getStatus())) {
+                topic = topics.computeIfAbsent(order.getId(), id -> new Topic(id, order.getCreatedByEndUserId()));
+            }
+            if (topic == null) {
+                continue;
+            }
+            topic.order = ResponseMapper.toDto(order, null);
+            assignJob(topic, order.getCurrentJobId());
+            reloaded.add(topic);
+            if (order.getCurrentJobId() != null) {
+                jobIds.add(order.getCurrentJobId());
+            }
+        }
+        Map<UUID, JobRepository.ProgressView> byJob = new HashMap<>();
+        if (!jobIds.isEmpty()) {
+            for (JobRepository.ProgressView v : jobRepository.findProgressViews(jobIds)) {
+                byJob.put(v.getJobId(), v);
+            }
+        }
+        for (Topic topic : reloaded) {
+            UUID jobId = topic.order.currentJobId();
+            JobRepository.ProgressView v = jobId == null ? null : byJob.get(jobId);
+            if (v == null) {
+                assignDrone(topic, null);
+                topic.position = null;
+            } else {
+                topic.dropoffLat = v.getDropoffLat();
+                topic.dropoffLng = v.getDropoffLng();
+                topic.position = dronePositions.position(v.getDroneId(), v.getDroneLat(), v.getDroneLng(), v.getLastHeartbeatAt());
+                assignDrone(topic, v.getDroneId());
+            }
+        }
+        return reloaded;
+    }
+
+    private void assignJob(Topic topic, UUID jobId) {
+        UUID previous = topic.jobId;
+        if (Objects.equals(previous, jobId)) {
+            return;
+        }
+        if (previous != null) {
+            topicsByJob.remove(previous, topic);
+        }
+        topic.jobId = jobId;
+        if (jobId != null) {
+            topicsByJob.put(jobId, topic);
+        }
+    }
+
+    private void assignDrone(Topic topic, UUID droneId) {
+        UUID previous = topic.droneId;
+        if (Objects.equals(previous, droneId)) {
+            return;
+        }
+        if (previous != null) {
+            topicsByDrone.computeIfPresent(previous, (id, set) -> {
+                set.remove(topic);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        topic.droneId = droneId;
+        if (droneId != null) {
+            topicsByDrone.computeIfAbsent(droneId, id -> ConcurrentHashMap.newKeySet()).add(topic);
+        }
+    }
+
+    private void schedulePush(Topic topic) {
+        if (topic.queued.compareAndSet(false, true)) {
+            pushExecutor.execute(() -> push(topic));
+        }
+    }
+
+    private void push(Topic topic) {
+        topic.queued.set(false);
+        OrderDtos.OrderResponse order = topic.order;
+        if (order == null) {
+            return;
+        }
+        synchronized (topic) {
+            OrderDtos.Progress progress = topic.progress();
+            if (!order.equals(topic.sentOrder)) {
+                broadcast(topic, "order", ResponseMapper.withProgress(order, progress));
+                topic.sentOrder = order;
+                topic.sentProgress = progress;
+            } else if (!Objects.equals(progress, topic.sentProgress)) {
+                broadcast(topic, "progress", new OrderDtos.ProgressUpdate(topic.orderId, progress));
+                topic.sentProgress = progress;
+            }
+        }
+        if (FINISHED.contains(order.status())) {
+            topic.watchers.forEach(SseEmitter::complete);
+            drop(topic);
+        }
+    }
+
+    /**
+     * Sends a new watcher the current state of its orders, loading the ones no stream was watching yet.
+     */
+    private void greet(SseEmitter emitter, List<Topic> watched) {
+        List<UUID> unloaded = watched.stream().filter(t -> t.order == null).map(t -> t.orderId).toList();
+        if (!unloaded.isEmpty()) {
+            reload(unloaded);
+        }
+        for (Topic topic : watched) {
+            OrderDtos.OrderResponse order = topic.order;
+            if (order != null) {
+                send(emitter, "order", ResponseMapper.withProgress(order, topic.progress()));
+            }
+        }
+    }
+
+    private void broadcast(Topic topic, String name, Object data) {
+        for (SseEmitter emitter : topic.watchers) {
+            send(emitter, name, data);
+        }
+        Set<SseEmitter> users = userWatchers.get(topic.endUserId);
+        if (users != null) {
+            for (SseEmitter emitter : users) {
+                send(emitter, name, data);
+            }
+        }
+    }
+
+    private void keepAlive() {
+        topics.values().forEach(t -> t.watchers.forEach(OrderTracker::ping));
+        userWatchers.values().forEach(set -> set.forEach(OrderTracker::ping));
+    }
+
+    private static void ping(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private static void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException ex) {
+            logger.debug("Dropping order event stream: {}", ex.getMessage());
+            emitter.completeWithError(ex);
+        }
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void unwatch(Topic topic, SseEmitter emitter) {
+        topic.watchers.remove(emitter);
+        dropIfUnwatched(topic);
+    }
+
+    private void unwatchUser(UUID endUserId, SseEmitter emitter) {
+        userWatchers.computeIfPresent(endUserId, (id, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+        topics.values().stream().filter(t -> t.endUserId.equals(endUserId)).forEach(this::dropIfUnwatched);
+    }
+
+    private void dropIfUnwatched(Topic topic) {
+        if (topic.watchers.isEmpty() && !userWatchers.containsKey(topic.endUserId)) {
+            drop(topic);
+        }
+    }
+
+    private void drop(Topic topic) {
+        if (topics.remove(topic.orderId, topic)) {
+            assignJob(topic, null);
+            assignDrone(topic, null);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reloadExecutor.shutdownNow();
+        pushExecutor.shutdownNow();
+        topics.values().forEach(t -> t.watchers.forEach(SseEmitter::complete));
+        userWatchers.values().forEach(set -> set.forEach(SseEmitter::complete));
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.dronedelivery.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded read-through cache of immutable values: least recently used entries are evicted beyond {@code maxSize} and
+ * entries expire {@code ttlMillis} after they were loaded.
+ * <p>
+ * A load that overlaps an invalidation of one of its keys does not cache that key, since it may have read the row
+ * before the invalidating commit. Invalidations are only remembered while loads are running.
+ */
+public final class ReadThroughCache<K, V> {
+
+    public record Stats(
+            String name,
+            int size,
+            int maxSize,
+            long hits,
+            long misses,
+            long evictions,
+            long expirations,
+            long invalidations
+    ) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Keys invalidated while loads were running, with the invalidation's generation.
+     */
+    private final Map<K, Long> invalidatedWhileLoading = new HashMap<>();
+    private long generation;
+    private int loading;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public ReadThroughCache(String name, int maxSize, long ttlMillis) {
+        this(name, maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    ReadThroughCache(String name, int maxSize, long ttlMillis, LongSupplier clock) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Values of {@code keys}, loading the missing ones with one call to {@code loader}. Keys the loader does not return
+     * are left out and not cached.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Collection<K>, Map<K, V>> loader) {
+        Map<K, V> found = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        long startGeneration;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            for (K key : new LinkedHashSet<>(keys)) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null && entry.expiresAt() <= now) {
+                    entries.remove(key);
+                    expirations++;
+                    entry = null;
+                }
+                if (entry == null) {
+                    missing.add(key);
+                } else {
+                    found.put(key, entry.value());
+                }
+            }
+            hits += found.size();
+            misses += missing.size();
+            if (missing.isEmpty()) {
+                return found;
+            }
+            startGeneration = generation;
+            loading++;
+        }
+
+        Map<K, V> loaded = null;
+        try {
+            loaded = loader.apply(missing);
+            found.putAll(loaded);
+        } finally {
+            finishLoad(loaded, startGeneration);
+        }
+        return found;
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        return getAll(List.of(key), keys -> {
+            V value = loader.apply(key);
+            return value == null ? Map.of() : Map.of(key, value);
+        }).get(key);
+    }
+
+    public synchronized void invalidateAll(Collection<K> keys) {
+        generation++;
+        for (K key : keys) {
+            if (entries.remove(key) != null) {
+                invalidations++;
+            }
+            if (loading > 0) {
+                invalidatedWhileLoading.put(key, generation);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(name, entries.size(), maxSize, hits, misses, evictions, expirations, invalidations);
+    }
+
+    private synchronized void finishLoad(Map<K, V> loaded, long startGeneration) {
+        if (loaded != null) {
+            long expiresAt = clock.getAsLong() + ttlMillis;
+            for (Map.Entry<K, V> e : loaded.entrySet()) {
+                Long invalidatedAt = invalidatedWhileLoading.get(e.getKey());
+                if (invalidatedAt == null || invalidatedAt <= startGeneration) {
+                    entries.put(e.getKey(), new Entry<>(e.getValue(), expiresAt));
+                }
+            }
+            Iterator<K> eldest = entries.keySet().iterator();
+            while (entries.size() > maxSize) {
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        }
+        if (--loading == 0) {
+            invalidatedWhileLoading.clear();
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.example.dronedelivery.service;
 
+import com.example.dronedelivery.api.dto.CacheDtos;
+import com.example.dronedelivery.api.dto.DispatchDtos;
 import com.example.dronedelivery.api.dto.DroneDtos;
 import com.example.dronedelivery.api.dto.OrderDtos;
 import com.example.dronedelivery.api.dto.common.Coordinates;
+import com.example.dronedelivery.domain.ArchivedJob;
+import com.example.dronedelivery.domain.ArchivedOrder;
 import com.example.dronedelivery.domain.DeliveryOrder;
 import com.example.dronedelivery.domain.Drone;
 import com.example.dronedelivery.domain.Job;
+import com.example.dronedelivery.domain.JobStatus;
+import com.example.dronedelivery.domain.JobType;
+import com.example.dronedelivery.repo.DroneRepository;
+
+import java.time.Instant;
+import java.util.UUID;
 
 public final class ResponseMapper {
 
@@ -32,6 +42,78 @@ public final class ResponseMapper {
         );
     }
 
+    /**
+     * @param position the heartbeat just received; newer than anything in the view
+     */
+    public static DroneDtos.HeartbeatResponse toDto(DroneRepository.HeartbeatView v, DronePositions.Position position) {
+        DroneDtos.DroneResponse drone = new DroneDtos.DroneResponse(
+                v.getDroneId(),
+                v.getName(),
+                v.getStatus(),
+                coordinates(position.lat(), position.lng()),
+                position.at(),
+                v.getCurrentJobId()
+        );
+        return new DroneDtos.HeartbeatResponse(drone, assignment(v), nextAction(v));
+    }
+
+    public static DroneDtos.DroneCommand toCommand(DroneRepository.HeartbeatView v) {
+        return toCommand(assignment(v), nextAction(v));
+    }
+
+    public static DroneDtos.DroneCommand toCommand(DroneDtos.Assignment assignment, DroneDtos.NextAction nextAction) {
+        DroneDtos.CommandType type;
+        if (assignment == null) {
+            type = DroneDtos.CommandType.CLEAR;
+        } else if (assignment.jobType() == JobType.HANDOFF_PICKUP_AND_DELIVER) {
+            type = DroneDtos.CommandType.HANDOFF;
+        } else {
+            type = DroneDtos.CommandType.ASSIGN;
+        }
+        return new DroneDtos.DroneCommand(type, assignment, nextAction);
+    }
+
+    private static DroneDtos.Assignment assignment(DroneRepository.HeartbeatView v) {
+        if (v.getJobId() == null) {
+            return null;
+        }
+        return new DroneDtos.Assignment(
+                v.getJobId(),
+                v.getJobStatus(),
+                v.getJobType(),
+                coordinates(v.getPickupLat(), v.getPickupLng()),
+                coordinates(v.getDropoffLat(), v.getDropoffLng()),
+                v.getOrderId(),
+                v.getOrderStatus()
+        );
+    }
+
+    private static DroneDtos.NextAction nextAction(DroneRepository.HeartbeatView v) {
+        return v.getJobId() == null ? DroneDtos.NextAction.RESERVE_JOB : nextAction(v.getJobStatus());
+    }
+
+    public static DroneDtos.NextAction nextAction(JobStatus jobStatus) {
+        if (jobStatus == JobStatus.RESERVED) {
+            return DroneDtos.NextAction.PICKUP;
+        }
+        if (jobStatus == JobStatus.IN_PROGRESS) {
+            return DroneDtos.NextAction.DELIVER_OR_FAIL;
+        }
+        return DroneDtos.NextAction.WAIT;
+    }
+
+    public static DroneDtos.TrackResponse toDto(UUID droneId, Instant from, Instant to, TelemetryStore.Track track) {
+        return new DroneDtos.TrackResponse(
+                droneId,
+                from,
+                to,
+                track.points().stream()
+                        .map(p -> new DroneDtos.TrackPoint(Instant.ofEpochMilli(p.at()), p.lat(), p.lng()))
+                        .toList(),
+                track.truncated()
+        );
+    }
+
     public static DroneDtos.JobResponse toDto(Job j) {
         return new DroneDtos.JobResponse(
                 j.getId(),
@@ -62,4 +144,84 @@ public final class ResponseMapper {
                 progress
         );
     }
+
+    public static DroneDtos.JobResponse toDto(ArchivedJob j) {
+        return new DroneDtos.JobResponse(
+                j.getId(),
+                j.getOrderId(),
+                j.getType(),
+                j.getStatus(),
+                coordinates(j.getPickupLat(), j.getPickupLng()),
+                coordinates(j.getDropoffLat(), j.getDropoffLng()),
+                j.getAssignedDroneId(),
+                j.getExcludedDroneId(),
+                j.getReservedAt(),
+                j.getStartedAt(),
+                j.getCompletedAt(),
+                j.getFailedAt(),
+                j.getCreatedAt()
+        );
+    }
+
+    /**
+     * Archived orders are finished, so they carry no progress.
+     */
+    public static OrderDtos.OrderResponse toDto(ArchivedOrder o) {
+        return new OrderDtos.OrderResponse(
+                o.getId(),
+                o.getCreatedByEndUserId(),
+                coordinates(o.getOriginLat(), o.getOriginLng()),
+                coordinates(o.getDestinationLat(), o.getDestinationLng()),
+                o.getStatus(),
+                o.getCurrentJobId(),
+                o.getCreatedAt(),
+                null
+        );
+    }
+
+    public static OrderDtos.OrderResponse withProgress(OrderDtos.OrderResponse o, OrderDtos.Progress progress) {
+        return new OrderDtos.OrderResponse(o.id(), o.createdByEndUserId(), o.origin(), o.destination(), o.status(),
+                o.currentJobId(), o.createdAt(), progress);
+    }
+
+    public static DispatchDtos.AssignmentRoundResponse toDto(JobAssignmentScheduler.AssignmentRound r) {
+        return new DispatchDtos.AssignmentRoundResponse(
+                r.mode(),
+                r.openJobs(),
+                r.availableDrones(),
+                r.planned(),
+                r.assigned(),
+                r.lostRaces(),
+                r.plannedDistanceMeters(),
+                r.greedyDistanceMeters(),
+                r.durationMillis(),
+                r.completedAt(),
+                r.partitions().stream().map(ResponseMapper::toDto).toList()
+        );
+    }
+
+    public static DispatchDtos.PartitionTimingResponse toDto(AssignmentPlanner.PartitionTiming p) {
+        return new DispatchDtos.PartitionTimingResponse(
+                p.cell(),
+                p.jobs(),
+                p.drones(),
+                p.assigned(),
+                p.deferred(),
+                p.durationMicros()
+        );
+    }
+
+    public static CacheDtos.CacheStatsResponse toDto(ReadThroughCache.Stats s) {
+        return new CacheDtos.CacheStatsResponse(
+                s.name(),
+                s.size(),
+                s.maxSize(),
+                s.hits(),
+                s.misses(),
+                s.hitRate(),
+                s.evictions(),
+                s.expirations(),
+                s.invalidations()
+        );
+    }
 }
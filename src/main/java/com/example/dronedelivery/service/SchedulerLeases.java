@@ -0,0 +1,173 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.repo.LeaseJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-task leases stored in the {@code scheduler_lease} table so each scheduled task runs on one node at a time.
+ * <p>
+ * A task asks for its lease with {@link #current(String)} and skips the run when this node does not hold it. Held
+ * leases are renewed in the background every third of {@code lease-ttl-seconds}; when a node dies its leases expire
+ * and the next node to ask takes them over with a higher fencing token. Before writing, a task calls
+ * {@link #checkFence(Lease)} inside its transaction so a node that lost its lease (e.g. after a long GC pause) cannot
+ * commit on top of the new owner's work.
+ * <p>
+ * Expiry compares application clocks, so node clocks must agree to well within the TTL.
+ */
+@Component
+public class SchedulerLeases {
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeases.class);
+
+    /**
+     * @param token fencing token; strictly increases each time the lease changes hands
+     */
+    public record Lease(String name, long token) {}
+
+    public static class LeaseLostException extends IllegalStateException {
+        public LeaseLostException(Lease lease) {
+            super("Scheduler lease " + lease.name() + " (token " + lease.token() + ") is no longer held by this node.");
+        }
+    }
+
+    private record Held(long token, long validUntilNanos) {}
+
+    private final LeaseJdbcRepository leaseRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final long renewIntervalMillis;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final Map<String, Held> held = new ConcurrentHashMap<>();
+    /**
+     * Every task name asked for so far; the renewer keeps trying to take these over.
+     */
+    private final Map<String, Boolean> tasks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "scheduler-leases");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public SchedulerLeases(
+            LeaseJdbcRepository leaseRepository,
+            @Value("${app.scheduler.lease-enabled:true}") boolean enabled,
+            @Value("${app.scheduler.lease-ttl-seconds:10}") long ttlSeconds
+    ) {
+        this(leaseRepository, enabled, Duration.ofSeconds(ttlSeconds));
+    }
+
+    SchedulerLeases(LeaseJdbcRepository leaseRepository, boolean enabled, Duration ttl) {
+        this.leaseRepository = leaseRepository;
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.renewIntervalMillis = Math.max(1, ttl.toMillis() / 3);
+        if (enabled) {
+            renewer.scheduleWithFixedDelay(this::renewAll, renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * The lease for {@code name} if this node holds it, trying to acquire it otherwise.
+     * Always granted (with token 0) when leases are disabled.
+     */
+    public Optional<Lease> current(String name) {
+        if (!enabled) {
+            return Optional.of(new Lease(name, 0));
+        }
+        tasks.putIfAbsent(name, Boolean.TRUE);
+        Held h = held.get(name);
+        if (h == null || System.nanoTime() >= h.validUntilNanos()) {
+            h = acquire(name);
+        }
+        return h == null ? Optional.empty() : Optional.of(new Lease(name, h.token()));
+    }
+
+    /**
+     * Must run inside the transaction that does the task's writes; the lease row stays locked until it ends.
+     *
+     * @throws LeaseLostException if another node has taken the lease over
+     */
+    public void checkFence(Lease lease) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("checkFence must be called inside a transaction.");
+        }
+        if (!leaseRepository.holdsFence(lease.name(), lease.token())) {
+            held.remove(lease.name());
+            throw new LeaseLostException(lease);
+        }
+    }
+
+    private Held acquire(String name) {
+        long startedAt = System.nanoTime();
+        Instant now = Instant.now();
+        OptionalLong token;
+        try {
+            token = leaseRepository.tryAcquire(name, owner, now, now.plus(ttl));
+        } catch (RuntimeException ex) {
+            logger.warn("Could not acquire or renew scheduler lease {}.", name, ex);
+            token = OptionalLong.empty();
+        }
+        if (token.isEmpty()) {
+            if (held.remove(name) != null) {
+                logger.warn("Lost scheduler lease {}.", name);
+            }
+            return null;
+        }
+        // Stop trusting the lease one renewal interval before it can expire in the database.
+        Held h = new Held(token.getAsLong(), startedAt + ttl.toNanos() - TimeUnit.MILLISECONDS.toNanos(renewIntervalMillis));
+        Held previous = held.put(name, h);
+        if (previous == null || previous.token() != h.token()) {
+            logger.info("Acquired scheduler lease {} (token {}).", name, h.token());
+        }
+        return h;
+    }
+
+    private void renewAll() {
+        for (String name : tasks.keySet()) {
+            acquire(name);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        renewer.shutdownNow();
+        Instant now = Instant.now();
+        for (String name : held.keySet()) {
+            try {
+                leaseRepository.release(name, owner, now);
+            } catch (RuntimeException ex) {
+                logger.debug("Could not release scheduler lease {}.", name, ex);
+            }
+        }
+        held.clear();
+    }
+}
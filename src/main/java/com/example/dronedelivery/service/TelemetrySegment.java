@@ -0,0 +1,296 @@
+package com.example.dronedelivery.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One memory-mapped file of the telemetry log.
+ * <p>
+ * Layout: a 16-byte header (magic, version, start millis) followed by records. The first point of a drone in a segment
+ * is a {@code DEFINE} record with the full drone id and raw values, which also gives the drone its index in this
+ * segment. Every later point is a {@code POINT} record of varints: the drone index, the zigzag timestamp delta and the
+ * XOR of the latitude and longitude bits with the drone's previous point, which for a drone that moved a little is
+ * mostly leading zeros. Zero-filled space after the last record ends the segment.
+ * <p>
+ * One writer appends; readers decode straight from a duplicate of the mapping up to {@link #committed}, which is
+ * published after the record bytes.
+ */
+final class TelemetrySegment {
+
+    private static final int MAGIC = 0x544C4D31; // "TLM1"
+    private static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    private static final byte DEFINE = 1;
+    private static final byte POINT = 2;
+    /**
+     * A DEFINE record; a POINT record takes at most 1 + 5 + 10 + 10 + 10 bytes.
+     */
+    private static final int MAX_RECORD_BYTES = 1 + 16 + 8 + 8 + 8;
+
+    record Point(long at, double lat, double lng) {}
+
+    /**
+     * Writer-side state of one drone: its index and previous point.
+     */
+    private static final class Cursor {
+        private final int index;
+        private long at;
+        private long latBits;
+        private long lngBits;
+
+        private Cursor(int index) {
+            this.index = index;
+        }
+    }
+
+    private final Path path;
+    private final long startMillis;
+    private final MappedByteBuffer buffer;
+    private final boolean writable;
+    private final Map<UUID, Integer> indexes = new ConcurrentHashMap<>();
+    private final Map<UUID, Cursor> cursors = new HashMap<>();
+
+    private volatile int committed;
+    private volatile long minAt = Long.MAX_VALUE;
+    private volatile long maxAt = Long.MIN_VALUE;
+
+    private TelemetrySegment(Path path, long startMillis, MappedByteBuffer buffer, boolean writable) {
+        this.path = path;
+        this.startMillis = startMillis;
+        this.buffer = buffer;
+        this.writable = writable;
+    }
+
+    static TelemetrySegment create(Path file, long startMillis, int capacityBytes) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        }
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(startMillis);
+        TelemetrySegment segment = new TelemetrySegment(file, startMillis, buffer, true);
+        segment.committed = HEADER_BYTES;
+        return segment;
+    }
+
+    /**
+     * Maps an existing segment read-only, e.g. after a restart.
+     *
+     * @throws IOException if the file is not a telemetry segment
+     */
+    static TelemetrySegment open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a telemetry segment: " + file);
+        }
+        TelemetrySegment segment = new TelemetrySegment(file, buffer.getLong(8), buffer, false);
+        segment.recover();
+        return segment;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long startMillis() {
+        return startMillis;
+    }
+
+    long minAt() {
+        return minAt;
+    }
+
+    long maxAt() {
+        return maxAt;
+    }
+
+    int committed() {
+        return committed;
+    }
+
+    /**
+     * Appends one point; callers must not append concurrently.
+     *
+     * @return false if the segment is full (or read-only) and nothing was written
+     */
+    boolean append(UUID droneId, long at, double lat, double lng) {
+        if (!writable || buffer.capacity() - committed < MAX_RECORD_BYTES) {
+            return false;
+        }
+        long latBits = Double.doubleToRawLongBits(lat);
+        long lngBits = Double.doubleToRawLongBits(lng);
+        // The tag goes in last, so a record cut short by a crash reads as the end of the segment.
+        int start = committed;
+        buffer.position(start + 1);
+        Cursor cursor = cursors.get(droneId);
+        if (cursor == null) {
+            cursor = new Cursor(cursors.size());
+            cursors.put(droneId, cursor);
+            buffer.putLong(droneId.getMostSignificantBits())
+                    .putLong(droneId.getLeastSignificantBits())
+                    .putLong(at)
+                    .putLong(latBits)
+                    .putLong(lngBits);
+            buffer.put(start, DEFINE);
+        } else {
+            putVarint(buffer, cursor.index);
+            putVarint(buffer, zigzag(at - cursor.at));
+            putVarint(buffer, latBits ^ cursor.latBits);
+            putVarint(buffer, lngBits ^ cursor.lngBits);
+            buffer.put(start, POINT);
+        }
+        cursor.at = at;
+        cursor.latBits = latBits;
+        cursor.lngBits = lngBits;
+        indexes.putIfAbsent(droneId, cursor.index);
+        if (at < minAt) {
+            minAt = at;
+        }
+        if (at > maxAt) {
+            maxAt = at;
+        }
+        committed = buffer.position();
+        return true;
+    }
+
+    /**
+     * Adds the drone's points with {@code from <= at <= to} to {@code out}, in the order they were appended.
+     */
+    void scan(UUID droneId, long from, long to, List<Point> out) {
+        Integer wanted = indexes.get(droneId);
+        if (wanted == null || maxAt < from || minAt > to) {
+            return;
+        }
+        int end = committed;
+        ByteBuffer view = buffer.duplicate();
+        view.limit(end).position(HEADER_BYTES);
+
+        int defined = 0;
+        long at = 0;
+        long latBits = 0;
+        long lngBits = 0;
+        while (view.hasRemaining()) {
+            byte tag = view.get();
+            if (tag == DEFINE) {
+                int index = defined++;
+                if (index == wanted) {
+                    view.position(view.position() + 16);
+                    at = view.getLong();
+                    latBits = view.getLong();
+                    lngBits = view.getLong();
+                } else {
+                    view.position(view.position() + 40);
+                    continue;
+                }
+            } else if (tag == POINT) {
+                if (getVarint(view) == wanted) {
+                    at += unzigzag(getVarint(view));
+                    latBits ^= getVarint(view);
+                    lngBits ^= getVarint(view);
+                } else {
+                    skipVarint(view);
+                    skipVarint(view);
+                    skipVarint(view);
+                    continue;
+                }
+            } else {
+                break;
+            }
+            if (at >= from && at <= to) {
+                out.add(new Point(at, Double.longBitsToDouble(latBits), Double.longBitsToDouble(lngBits)));
+            }
+        }
+    }
+
+    /**
+     * Flushes written pages to the file.
+     */
+    void force() {
+        if (writable) {
+            buffer.force();
+        }
+    }
+
+    /**
+     * Rebuilds the drone indexes, time range and end of data of a segment mapped from disk. A record cut short by a
+     * crash is dropped.
+     */
+    private void recover() {
+        ByteBuffer view = buffer.duplicate();
+        view.position(HEADER_BYTES);
+        List<long[]> points = new ArrayList<>();
+        int end = HEADER_BYTES;
+        try {
+            while (view.hasRemaining()) {
+                byte tag = view.get();
+                long[] point;
+                if (tag == DEFINE) {
+                    UUID droneId = new UUID(view.getLong(), view.getLong());
+                    point = new long[]{view.getLong(), view.getLong(), view.getLong()};
+                    indexes.put(droneId, points.size());
+                    points.add(point);
+                } else if (tag == POINT) {
+                    point = points.get((int) getVarint(view));
+                    point[0] += unzigzag(getVarint(view));
+                    point[1] ^= getVarint(view);
+                    point[2] ^= getVarint(view);
+                } else {
+                    break;
+                }
+                end = view.position();
+                minAt = Math.min(minAt, point[0]);
+                maxAt = Math.max(maxAt, point[0]);
+            }
+        } catch (RuntimeException ex) {
+            // Truncated tail: keep everything before it.
+        }
+        committed = end;
+    }
+
+    static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    static void putVarint(ByteBuffer buffer, long v) {
+        while ((v & ~0x7FL) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    static long getVarint(ByteBuffer buffer) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return v;
+            }
+        }
+        throw new IllegalStateException("Malformed varint.");
+    }
+
+    private static void skipVarint(ByteBuffer buffer) {
+        while (buffer.get() < 0) {
+            // continuation bit set
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.dronedelivery.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Flight history: every recorded heartbeat appended to a log of memory-mapped {@link TelemetrySegment segments} under
+ * {@code app.telemetry.dir}, kept out of the relational database.
+ * <p>
+ * A new segment is started every {@code segment-minutes} or when the current one is full; segments whose newest point
+ * is older than {@code retention-hours} are deleted. Segments left by an earlier run are mapped read-only at startup.
+ * Appends reach the page cache right away and survive a process crash; they are forced to disk when a segment is
+ * closed and on shutdown.
+ * <p>
+ * Drones are spread over {@code stripes} writers, each with its own current segment and lock, so heartbeats of
+ * different drones rarely wait for each other. A drone always lands in the same stripe, so its points stay in order.
+ * <p>
+ * The log is local to the node that received the heartbeats.
+ */
+@Component
+public class TelemetryStore {
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryStore.class);
+
+    private static final String SUFFIX = ".tlm";
+
+    /**
+     * @param truncated more than {@code max-track-points} points matched; only the oldest were returned
+     */
+    public record Track(List<TelemetrySegment.Point> points, boolean truncated) {}
+
+    private final Path dir;
+    private final boolean enabled;
+    private final Duration segmentDuration;
+    private final int segmentBytes;
+    private final Duration retention;
+    private final int maxTrackPoints;
+
+    /**
+     * One writer; {@link #current} is only touched while holding the stripe's monitor.
+     */
+    private static final class Stripe {
+        private TelemetrySegment current;
+    }
+
+    /**
+     * Every segment, including each stripe's current one, in the order they were mapped or started.
+     */
+    private final List<TelemetrySegment> segments = new CopyOnWriteArrayList<>();
+    private final Stripe[] stripes;
+
+    @Autowired
+    public TelemetryStore(
+            @Value("${app.telemetry.dir:data/telemetry}") String dir,
+            @Value("${app.telemetry.enabled:true}") boolean enabled,
+            @Value("${app.telemetry.segment-minutes:60}") long segmentMinutes,
+            @Value("${app.telemetry.segment-bytes:67108864}") int segmentBytes,
+            @Value("${app.telemetry.retention-hours:168}") long retentionHours,
+            @Value("${app.telemetry.max-track-points:100000}") int maxTrackPoints,
+            @Value("${app.telemetry.stripes:4}") int stripes
+    ) {
+        this(Paths.get(dir), enabled, Duration.ofMinutes(segmentMinutes), segmentBytes, Duration.ofHours(retentionHours),
+                maxTrackPoints, stripes);
+    }
+
+    TelemetryStore(Path dir, boolean enabled, Duration segmentDuration, int segmentBytes, Duration retention,
+                   int maxTrackPoints, int stripes) {
+        this.dir = dir;
+        this.enabled = enabled;
+        this.segmentDuration = segmentDuration;
+        this.segmentBytes = Math.max(segmentBytes, 4096);
+        this.retention = retention;
+        this.maxTrackPoints = maxTrackPoints;
+        this.stripes = new Stripe[Math.max(stripes, 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        if (enabled) {
+            loadExisting();
+        }
+    }
+
+    public void append(UUID droneId, DronePositions.Position position) {
+        append(droneId, position.at().toEpochMilli(), position.lat(), position.lng());
+    }
+
+    void append(UUID droneId, long atMillis, double lat, double lng) {
+        if (!enabled) {
+            return;
+        }
+        Stripe stripe = stripes[Math.floorMod(droneId.hashCode(), stripes.length)];
+        synchronized (stripe) {
+            try {
+                if (stripe.current == null || System.currentTimeMillis() - stripe.current.startMillis() >= segmentDuration.toMillis()) {
+                    roll(stripe);
+                }
+                if (!stripe.current.append(droneId, atMillis, lat, lng)) {
+                    roll(stripe);
+                    stripe.current.append(droneId, atMillis, lat, lng);
+                }
+            } catch (IOException ex) {
+                // History is best effort; never fail a heartbeat over it.
+                logger.warn("Could not append telemetry for drone {}.", droneId, ex);
+            }
+        }
+    }
+
+    /**
+     * The drone's points with {@code from <= at <= to}, oldest first, decoded directly from the mapped segments.
+     */
+    public Track track(UUID droneId, Instant from, Instant to) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<TelemetrySegment.Point> points = new ArrayList<>();
+        for (TelemetrySegment segment : segments) {
+            segment.scan(droneId, fromMillis, toMillis, points);
+        }
+        points.sort(Comparator.comparingLong(TelemetrySegment.Point::at));
+        if (points.size() > maxTrackPoints) {
+            return new Track(List.copyOf(points.subList(0, maxTrackPoints)), true);
+        }
+        return new Track(points, false);
+    }
+
+    /**
+     * Closes the current segment once its time is up, even if no heartbeat arrives, and applies the retention.
+     */
+    @Scheduled(fixedDelayString = "${app.telemetry.maintenance-interval-millis:60000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        Set<TelemetrySegment> open = new HashSet<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.current != null && System.currentTimeMillis() - stripe.current.startMillis() >= segmentDuration.toMillis()) {
+                    stripe.current.force();
+                    stripe.current = null;
+                }
+                if (stripe.current != null) {
+                    open.add(stripe.current);
+                }
+            }
+        }
+        long cutoff = Instant.now().minus(retention).toEpochMilli();
+        for (TelemetrySegment segment : segments) {
+            long newest = segment.maxAt() == Long.MIN_VALUE ? segment.startMillis() : segment.maxAt();
+            // A segment started after the stripes were checked is newer than the cutoff.
+            if (!open.contains(segment) && newest < cutoff) {
+                segments.remove(segment);
+                try {
+                    // Readers still holding the mapping keep working; the space is freed once it is unmapped.
+                    Files.deleteIfExists(segment.path());
+                } catch (IOException ex) {
+                    logger.warn("Could not delete telemetry segment {}.", segment.path(), ex);
+                }
+            }
+        }
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    long bytesUsed() {
+        return segments.stream().mapToLong(s -> s.committed() - TelemetrySegment.HEADER_BYTES).sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                if (stripe.current != null) {
+                    stripe.current.force();
+                }
+            }
+        }
+    }
+
+    private void roll(Stripe stripe) throws IOException {
+        if (stripe.current != null) {
+            stripe.current.force();
+        }
+        Files.createDirectories(dir);
+        long startMillis = System.currentTimeMillis();
+        // Several processes may share the directory.
+        String name = String.format("segment-%013d-%08x%s", startMillis, ThreadLocalRandom.current().nextInt(), SUFFIX);
+        stripe.current = TelemetrySegment.create(dir.resolve(name), startMillis, segmentBytes);
+        segments.add(stripe.current);
+    }
+
+    private void loadExisting() {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        List<TelemetrySegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    loaded.add(TelemetrySegment.open(file));
+                } catch (IOException ex) {
+                    logger.warn("Skipping unreadable telemetry segment {}.", file, ex);
+                }
+            }
+        } catch (IOException ex) {
+            logger.warn("Could not list telemetry segments in {}.", dir, ex);
+        }
+        loaded.sort(Comparator.comparingLong(TelemetrySegment::startMillis));
+        segments.addAll(loaded);
+        if (!loaded.isEmpty()) {
+            logger.info("Mapped {} telemetry segment(s) from {}.", loaded.size(), dir);
+        }
+    }
+}
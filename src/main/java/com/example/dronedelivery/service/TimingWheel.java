@@ -0,0 +1,119 @@
+package com.example.dronedelivery.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hashed timing wheel: keys are bucketed by deadline tick, so arming is O(1) and each {@link #advance(long)} only looks
+ * at the buckets whose time has come.
+ * <p>
+ * Re-arming does not search the old bucket; the key is dropped from it lazily when that bucket is next visited.
+ * Deadlines further out than one revolution stay in their bucket until the right revolution comes round.
+ * {@link #arm} is safe from any thread and only waits while {@link #advance} runs, so it never files a key into a bucket
+ * that is being visited or was just passed; {@link #advance} is meant to be called from one ticker.
+ */
+final class TimingWheel<K> {
+
+    private final long tickMillis;
+    private final Set<K>[] buckets;
+    private final Map<K, Long> deadlines = new ConcurrentHashMap<>();
+    /**
+     * Shared by arms, exclusive to advance.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Last tick whose bucket has been processed.
+     */
+    private volatile long processedTick;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMillis, int bucketCount, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.buckets = new Set[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.processedTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}, or keeps its current deadline if that is later.
+     */
+    void arm(K key, long deadlineMillis) {
+        lock.readLock().lock();
+        try {
+            long deadline = deadlines.merge(key, deadlineMillis, Math::max);
+            buckets[bucketFor(deadline, processedTick)].add(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void disarm(K key) {
+        deadlines.remove(key);
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}.
+     *
+     * @return keys whose deadline has passed; they are no longer armed
+     */
+    List<K> advance(long nowMillis) {
+        lock.writeLock().lock();
+        try {
+            return advanceTo(Math.floorDiv(nowMillis, tickMillis));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<K> advanceTo(long target) {
+        List<K> expired = new ArrayList<>();
+        // After a long pause one revolution visits every bucket; going further would only repeat them.
+        for (long tick = Math.max(processedTick + 1, target - buckets.length + 1); tick <= target; tick++) {
+            int index = Math.floorMod(tick, buckets.length);
+            for (Iterator<K> it = buckets[index].iterator(); it.hasNext(); ) {
+                K key = it.next();
+                Long deadline = deadlines.get(key);
+                if (deadline != null && dueTick(deadline) > tick && bucketFor(deadline, tick) == index) {
+                    // Due in a later revolution.
+                    continue;
+                }
+                it.remove();
+                if (deadline != null && dueTick(deadline) <= tick && deadlines.remove(key, deadline)) {
+                    expired.add(key);
+                    continue;
+                }
+                // Re-armed meanwhile (possibly while we were looking): make sure it sits in its current bucket.
+                Long current = deadlines.get(key);
+                if (current != null) {
+                    buckets[bucketFor(current, tick)].add(key);
+                }
+            }
+            processedTick = tick;
+        }
+        processedTick = Math.max(processedTick, target);
+        return expired;
+    }
+
+    private int bucketFor(long deadlineMillis, long afterTick) {
+        return Math.floorMod(Math.max(dueTick(deadlineMillis), afterTick + 1), buckets.length);
+    }
+
+    /**
+     * First tick that starts at or after the deadline, so keys never fire early.
+     */
+    private long dueTick(long deadlineMillis) {
+        return Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+    }
+}
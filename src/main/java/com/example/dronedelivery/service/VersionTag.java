@@ -0,0 +1,23 @@
+package com.example.dronedelivery.service;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Strong ETag of a polled response and the versions of the order and job it shows ({@link #NONE} without a job).
+ * Building the response from read models at least this new keeps the body from being older than its ETag.
+ */
+public record VersionTag(String etag, long orderVersion, long jobVersion) {
+
+    public static final long NONE = -1;
+
+    /**
+     * @param parts whatever else the response depends on, e.g. the drone's last heartbeat time; nulls are allowed
+     */
+    static VersionTag of(long orderVersion, long jobVersion, Object... parts) {
+        String extra = Arrays.stream(parts).map(p -> Objects.toString(p, "_")).collect(Collectors.joining("-"));
+        return new VersionTag("\"" + orderVersion + "-" + jobVersion + (extra.isEmpty() ? "" : "-" + extra) + "\"",
+                orderVersion, jobVersion);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.dronedelivery.simulator;
+
+import com.example.dronedelivery.api.dto.AuthDtos;
+import com.example.dronedelivery.api.dto.OrderDtos;
+import com.example.dronedelivery.api.dto.common.Coordinates;
+import com.example.dronedelivery.security.AuthRole;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator for the {@code simulator} profile: a fleet of {@link VirtualDrone}s and a stream of end-user orders,
+ * all going through the public REST API, with throughput and latency logged every {@code report-interval}.
+ * <p>
+ * Drones are small state machines ticked by a shared scheduler and talk to the API through the non-blocking HTTP
+ * client, so thousands of them need only {@code threads} threads.
+ */
+@Component
+@Profile("simulator")
+@EnableConfigurationProperties(SimulatorProperties.class)
+public class FleetSimulator {
+    private static final Logger logger = LoggerFactory.getLogger(FleetSimulator.class);
+    private static final int TOKEN_BATCH = 50;
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    private final SimulatorProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final SimulatorStats stats = new SimulatorStats();
+    private final Map<UUID, Long> pendingOrders = new ConcurrentHashMap<>();
+    private final List<VirtualDrone> drones = new ArrayList<>();
+    private final AtomicInteger nextEndUser = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    private SimulatorClient client;
+    private List<String> endUserTokens = List.of();
+    private long lastReportNanos = System.nanoTime();
+
+    public FleetSimulator(SimulatorProperties properties, ObjectMapper objectMapper, Environment environment) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, properties.getThreads()), r -> {
+            Thread t = new Thread(r, "fleet-simulator-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        String baseUrl = StringUtils.hasText(properties.getBaseUrl())
+                ? properties.getBaseUrl()
+                : "http://localhost:" + environment.getProperty("local.server.port", "8080");
+        client = new SimulatorClient(URI.create(baseUrl), objectMapper, stats, scheduler);
+        scheduler.execute(() -> {
+            try {
+                launch();
+            } catch (RuntimeException ex) {
+                logger.error("Fleet simulator could not start against {}.", baseUrl, ex);
+            }
+        });
+    }
+
+    private void launch() {
+        logger.info("Starting {} simulated drones and {} end users.", properties.getDrones(), properties.getEndUsers());
+        endUserTokens = tokens("sim-user-", properties.getEndUsers(), AuthRole.ENDUSER);
+        List<String> droneTokens = tokens("sim-drone-", properties.getDrones(), AuthRole.DRONE);
+
+        long intervalMillis = properties.getHeartbeatInterval().toMillis();
+        synchronized (drones) {
+            for (int i = 0; i < droneTokens.size(); i++) {
+                double[] position = randomPosition();
+                VirtualDrone drone = new VirtualDrone("sim-drone-" + i, droneTokens.get(i), position[0], position[1],
+                        properties, client, stats, scheduler, pendingOrders);
+                drones.add(drone);
+                // Spread the first ticks over one interval so heartbeats do not arrive in lockstep.
+                drone.start(ThreadLocalRandom.current().nextLong(Math.max(1, intervalMillis)));
+            }
+        }
+        if (properties.getOrdersPerSecond() > 0 && !endUserTokens.isEmpty()) {
+            long periodMicros = Math.max(1, (long) (1_000_000 / properties.getOrdersPerSecond()));
+            scheduler.scheduleAtFixedRate(this::submitOrder, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+        }
+        long reportMillis = properties.getReportInterval().toMillis();
+        lastReportNanos = System.nanoTime();
+        scheduler.scheduleAtFixedRate(this::report, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Issues tokens in batches, which also creates the drones and end users on first use.
+     */
+    private List<String> tokens(String prefix, int count, AuthRole role) {
+        List<String> tokens = new ArrayList<>(count);
+        for (int from = 0; from < count; from += TOKEN_BATCH) {
+            List<CompletableFuture<AuthDtos.TokenResponse>> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + TOKEN_BATCH); i++) {
+                var request = new AuthDtos.TokenRequest(prefix + i, role);
+                batch.add(client.post("token", "/auth/token", null, request, AuthDtos.TokenResponse.class));
+            }
+            for (CompletableFuture<AuthDtos.TokenResponse> response : batch) {
+                tokens.add(response.join().accessToken());
+            }
+        }
+        return tokens;
+    }
+
+    private void submitOrder() {
+        String token = endUserTokens.get(Math.floorMod(nextEndUser.getAndIncrement(), endUserTokens.size()));
+        double[] origin = randomPosition();
+        double[] destination = randomPosition();
+        var request = new OrderDtos.SubmitOrderRequest(
+                new Coordinates(origin[0], origin[1]),
+                new Coordinates(destination[0], destination[1])
+        );
+        long submittedAt = System.nanoTime();
+        client.post("submit-order", "/enduser/orders", token, request, OrderDtos.OrderResponse.class)
+                .whenComplete((order, failure) -> {
+                    if (order != null) {
+                        pendingOrders.put(order.id(), submittedAt);
+                    } else if (failure != null) {
+                        logger.debug("Simulated order submission failed.", failure);
+                    }
+                });
+    }
+
+    private void report() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastReportNanos) / 1e9);
+        lastReportNanos = now;
+        StringBuilder line = new StringBuilder("Simulator:");
+        stats.rollWindow().forEach((op, s) -> line.append(String.format(
+                " %s %.1f/s p50=%.1fms p99=%.1fms max=%.1fms err=%d;",
+                op, s.count() / seconds, s.p50Millis(), s.p99Millis(), s.maxMillis(), s.errors())));
+        line.append(" totals ").append(stats.totals()).append(", unassigned orders ").append(pendingOrders.size());
+        logger.info(line.toString());
+    }
+
+    /**
+     * A uniformly random point within {@code radius-meters} of the center.
+     */
+    private double[] randomPosition() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double distance = properties.getRadiusMeters() * Math.sqrt(random.nextDouble());
+        double bearing = random.nextDouble() * 2 * Math.PI;
+        double lat = properties.getCenterLat() + distance * Math.cos(bearing) / METERS_PER_DEGREE;
+        double lng = properties.getCenterLng()
+                + distance * Math.sin(bearing) / (METERS_PER_DEGREE * Math.cos(Math.toRadians(properties.getCenterLat())));
+        return new double[]{lat, lng};
+    }
+
+    @PreDestroy
+    public void stop() {
+        synchronized (drones) {
+            drones.forEach(VirtualDrone::stop);
+        }
+        scheduler.shutdownNow();
+    }
+}
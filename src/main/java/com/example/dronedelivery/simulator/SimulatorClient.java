@@ -0,0 +1,111 @@
+package com.example.dronedelivery.simulator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking JSON calls against the REST API, each timed into {@link SimulatorStats} under an operation name.
+ */
+class SimulatorClient {
+
+    /**
+     * The API answered with an error status.
+     */
+    static class HttpStatusException extends RuntimeException {
+        private final int status;
+
+        HttpStatusException(String op, int status) {
+            super(op + " returned HTTP " + status);
+            this.status = status;
+        }
+
+        int status() {
+            return status;
+        }
+    }
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final SimulatorStats stats;
+
+    SimulatorClient(URI baseUri, ObjectMapper objectMapper, SimulatorStats stats, Executor executor) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.stats = stats;
+    }
+
+    <T> CompletableFuture<T> get(String op, String path, String token, Class<T> type) {
+        return send(op, request(path, token).GET().build(), objectMapper.constructType(type));
+    }
+
+    <T> CompletableFuture<T> get(String op, String path, String token, JavaType type) {
+        return send(op, request(path, token).GET().build(), type);
+    }
+
+    <T> CompletableFuture<T> post(String op, String path, String token, Object body, Class<T> type) {
+        String json;
+        try {
+            json = body == null ? "" : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return send(op, request, objectMapper.constructType(type));
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private <T> CompletableFuture<T> send(String op, HttpRequest request, JavaType type) {
+        long startedAt = System.nanoTime();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    long micros = (System.nanoTime() - startedAt) / 1000;
+                    boolean error = failure != null || response.statusCode() >= 400;
+                    stats.record(op, micros, error);
+                    if (failure != null) {
+                        throw failure instanceof CompletionException ce ? ce : new CompletionException(failure);
+                    }
+                    if (response.statusCode() >= 400) {
+                        throw new HttpStatusException(op, response.statusCode());
+                    }
+                    byte[] body = response.body();
+                    if (body == null || body.length == 0) {
+                        return null;
+                    }
+                    try {
+                        return objectMapper.<T>readValue(body, type);
+                    } catch (java.io.IOException ex) {
+                        throw new CompletionException(ex);
+                    }
+                });
+    }
+}
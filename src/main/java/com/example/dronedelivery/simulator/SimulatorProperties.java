@@ -0,0 +1,53 @@
+package com.example.dronedelivery.simulator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.simulator")
+@Data
+public class SimulatorProperties {
+    /**
+     * API to drive; defaults to this application's own port.
+     */
+    private String baseUrl;
+
+    private int drones = 1000;
+
+    private int endUsers = 50;
+
+    /**
+     * Orders submitted per second across all simulated end users; 0 disables order traffic.
+     */
+    private double ordersPerSecond = 5.0;
+
+    private double speedMetersPerSecond = 15.0;
+
+    private Duration heartbeatInterval = Duration.ofSeconds(2);
+
+    /**
+     * Expected breakdowns per drone per hour of flight time.
+     */
+    private double failureRatePerHour = 0.1;
+
+    private Duration repairTime = Duration.ofSeconds(60);
+
+    /**
+     * Share of idle drones that look for an open job themselves instead of waiting for the dispatcher.
+     */
+    private double selfReserveRatio = 0.2;
+
+    private double centerLat = 24.7136;
+
+    private double centerLng = 46.6753;
+
+    private double radiusMeters = 10_000;
+
+    /**
+     * Threads driving all virtual drones; requests themselves are non-blocking.
+     */
+    private int threads = 4;
+
+    private Duration reportInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,103 @@
+package com.example.dronedelivery.simulator;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counts and latencies per operation, collected in windows that {@link #rollWindow()} hands over for reporting.
+ * Latencies go into log-linear buckets (four per power of two of microseconds), so percentiles are accurate to
+ * within about 20%.
+ */
+class SimulatorStats {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    record OpSummary(long count, long errors, double p50Millis, double p99Millis, double maxMillis) {}
+
+    private static final class Op {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong max = new AtomicLong();
+
+        private void record(long micros, boolean error) {
+            count.increment();
+            if (error) {
+                errors.increment();
+            }
+            buckets.incrementAndGet(bucket(micros));
+            max.accumulateAndGet(micros, Math::max);
+        }
+
+        private OpSummary summary() {
+            long n = count.sum();
+            return new OpSummary(n, errors.sum(), percentile(n, 0.50), percentile(n, 0.99), max.get() / 1000.0);
+        }
+
+        private double percentile(long n, double p) {
+            long rank = (long) Math.ceil(n * p);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return upperBoundMicros(i) / 1000.0;
+                }
+            }
+            return 0;
+        }
+    }
+
+    private final AtomicReference<Map<String, Op>> window = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final Map<String, LongAdder> totals = new ConcurrentHashMap<>();
+
+    void record(String op, long micros, boolean error) {
+        window.get().computeIfAbsent(op, k -> new Op()).record(micros, error);
+    }
+
+    /**
+     * Counts an event that has no latency, e.g. a completed delivery; these are cumulative.
+     */
+    void count(String event) {
+        totals.computeIfAbsent(event, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Starts a new window and summarizes the one that ended.
+     */
+    Map<String, OpSummary> rollWindow() {
+        Map<String, Op> ended = window.getAndSet(new ConcurrentHashMap<>());
+        Map<String, OpSummary> summaries = new TreeMap<>();
+        ended.forEach((name, op) -> summaries.put(name, op.summary()));
+        return summaries;
+    }
+
+    Map<String, Long> totals() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        totals.forEach((name, adder) -> snapshot.put(name, adder.sum()));
+        return snapshot;
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int log2 = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (log2 - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, log2 * SUB_BUCKETS + sub);
+    }
+
+    static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int log2 = bucket / SUB_BUCKETS;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << (log2 - 2)) - 1;
+    }
+}
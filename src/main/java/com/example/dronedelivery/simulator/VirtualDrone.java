@@ -0,0 +1,189 @@
+package com.example.dronedelivery.simulator;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.example.dronedelivery.api.dto.common.Coordinates;
+import com.example.dronedelivery.service.GeoUtil;
+import com.fasterxml.jackson.databind.JavaType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated drone. Each tick it may break down, flies toward its current pickup or dropoff point, sends a
+ * heartbeat and acts on the returned next action; idle drones sometimes reserve an open job themselves. The next tick
+ * is scheduled once the tick's requests have finished, so a slow server slows the fleet down instead of piling up
+ * requests.
+ */
+class VirtualDrone {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualDrone.class);
+
+    private final String name;
+    private final String token;
+    private final SimulatorProperties properties;
+    private final SimulatorClient client;
+    private final SimulatorStats stats;
+    private final ScheduledExecutorService scheduler;
+    /**
+     * Submit time (nanos) of orders nobody has been seen working on yet, shared with the order submitter.
+     */
+    private final Map<UUID, Long> pendingOrders;
+    private final JavaType jobListType;
+
+    private UUID droneId;
+    private double lat;
+    private double lng;
+    private long repairedAtNanos;
+    private boolean broken;
+    private volatile boolean running = true;
+
+    VirtualDrone(String name, String token, double lat, double lng, SimulatorProperties properties, SimulatorClient client,
+                 SimulatorStats stats, ScheduledExecutorService scheduler, Map<UUID, Long> pendingOrders) {
+        this.name = name;
+        this.token = token;
+        this.lat = lat;
+        this.lng = lng;
+        this.properties = properties;
+        this.client = client;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.pendingOrders = pendingOrders;
+        this.jobListType = client.objectMapper().getTypeFactory().constructCollectionType(List.class, DroneDtos.NearbyJobResponse.class);
+    }
+
+    void start(long initialDelayMillis) {
+        scheduler.schedule(this::tick, initialDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private void tick() {
+        if (!running) {
+            return;
+        }
+        CompletableFuture<?> step;
+        try {
+            step = step();
+        } catch (RuntimeException ex) {
+            step = CompletableFuture.failedFuture(ex);
+        }
+        step.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                logger.debug("Simulated drone {} tick failed.", name, failure);
+            }
+            if (running) {
+                scheduler.schedule(this::tick, properties.getHeartbeatInterval().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private CompletableFuture<?> step() {
+        if (broken) {
+            if (System.nanoTime() - repairedAtNanos < 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return client.post("fixed", "/drone/self/fixed", token, null, DroneDtos.DroneResponse.class)
+                    .thenRun(() -> {
+                        broken = false;
+                        stats.count("repairs");
+                    });
+        }
+        double intervalSeconds = properties.getHeartbeatInterval().toMillis() / 1000.0;
+        double breakdownChance = properties.getFailureRatePerHour() * intervalSeconds / 3600.0;
+        if (ThreadLocalRandom.current().nextDouble() < breakdownChance) {
+            return client.post("broken", "/drone/self/broken", token, null, DroneDtos.DroneResponse.class)
+                    .thenRun(() -> {
+                        broken = true;
+                        repairedAtNanos = System.nanoTime() + properties.getRepairTime().toNanos();
+                        stats.count("breakdowns");
+                    });
+        }
+        return heartbeat().thenCompose(this::act);
+    }
+
+    private CompletableFuture<DroneDtos.HeartbeatResponse> heartbeat() {
+        var request = new DroneDtos.HeartbeatRequest(new Coordinates(lat, lng));
+        return client.post("heartbeat", "/drone/self/heartbeat", token, request, DroneDtos.HeartbeatResponse.class);
+    }
+
+    private CompletableFuture<?> act(DroneDtos.HeartbeatResponse response) {
+        droneId = response.drone().id();
+        DroneDtos.Assignment assignment = response.assignment();
+        if (assignment == null) {
+            return ThreadLocalRandom.current().nextDouble() < properties.getSelfReserveRatio()
+                    ? reserveClosestOpenJob()
+                    : CompletableFuture.completedFuture(null);
+        }
+        // The first assignment of an order ends its wait; handoffs find it already removed.
+        Long submittedAt = pendingOrders.remove(assignment.orderId());
+        if (submittedAt != null) {
+            stats.record("order-to-assignment", (System.nanoTime() - submittedAt) / 1000, false);
+        }
+        return switch (response.nextAction()) {
+            case PICKUP -> flyTo(assignment.pickup())
+                    ? client.post("pickup", "/drone/jobs/" + assignment.jobId() + "/pickup", token, null, DroneDtos.JobResponse.class)
+                    : CompletableFuture.completedFuture(null);
+            case DELIVER_OR_FAIL -> flyTo(assignment.dropoff())
+                    ? client.post("complete", "/drone/jobs/" + assignment.jobId() + "/complete", token, null, DroneDtos.JobResponse.class)
+                            .thenRun(() -> stats.count("deliveries"))
+                    : CompletableFuture.completedFuture(null);
+            default -> CompletableFuture.completedFuture(null);
+        };
+    }
+
+    private CompletableFuture<?> reserveClosestOpenJob() {
+        return client.<List<DroneDtos.NearbyJobResponse>>get("open-jobs", "/drone/jobs/open?near=self&limit=1", token, jobListType)
+                .thenCompose(jobs -> {
+                    DroneDtos.JobResponse closest = jobs == null || jobs.isEmpty() ? null : jobs.get(0).job();
+                    if (closest == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return client.post("reserve", "/drone/jobs/" + closest.id() + "/reserve", token, null, DroneDtos.ReserveJobResponse.class)
+                            .exceptionally(failure -> {
+                                if (isConflict(failure)) {
+                                    // Another drone or the dispatcher got there first.
+                                    stats.count("reserve-conflicts");
+                                    return null;
+                                }
+                                throw failure instanceof CompletionException ce ? ce : new CompletionException(failure);
+                            });
+                });
+    }
+
+    /**
+     * Moves one heartbeat interval's worth of flight toward {@code target}.
+     *
+     * @return true once the drone is there
+     */
+    private boolean flyTo(Coordinates target) {
+        double remaining = distanceTo(target);
+        double reach = properties.getSpeedMetersPerSecond() * properties.getHeartbeatInterval().toMillis() / 1000.0;
+        if (remaining <= reach) {
+            lat = target.lat();
+            lng = target.lng();
+            return true;
+        }
+        double fraction = reach / remaining;
+        lat += (target.lat() - lat) * fraction;
+        lng += (target.lng() - lng) * fraction;
+        return false;
+    }
+
+    private double distanceTo(Coordinates target) {
+        return GeoUtil.haversineMeters(lat, lng, target.lat(), target.lng());
+    }
+
+    private static boolean isConflict(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof SimulatorClient.HttpStatusException ex && ex.status() == 409;
+    }
+}
@@ -15,11 +15,17 @@ CREATE TABLE drones (
   last_lng DOUBLE PRECISION,
   last_heartbeat_at TIMESTAMPTZ,
   current_job_id UUID,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
   CONSTRAINT uk_drones_name UNIQUE (name)
 );
 
+-- Keyset pagination indexes: (filter, created_at, id) serve every page with one index seek.
+CREATE INDEX idx_drones_created ON drones(created_at, id);
+CREATE INDEX idx_drones_status_created ON drones(status, created_at, id);
+
 CREATE TABLE orders (
   id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+  version BIGINT NOT NULL DEFAULT 0,
   created_by_end_user_id UUID NOT NULL,
   origin_lat DOUBLE PRECISION NOT NULL,
   origin_lng DOUBLE PRECISION NOT NULL,
@@ -31,6 +37,10 @@ CREATE TABLE orders (
   CONSTRAINT fk_orders_end_user FOREIGN KEY (created_by_end_user_id) REFERENCES end_users(id)
 );
 
+CREATE INDEX idx_orders_created ON orders(created_at, id);
+CREATE INDEX idx_orders_status_created ON orders(status, created_at, id);
+CREATE INDEX idx_orders_end_user_created ON orders(created_by_end_user_id, created_at, id);
+
 CREATE TABLE jobs (
   id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
   version BIGINT NOT NULL DEFAULT 0,
@@ -52,4 +62,51 @@ CREATE TABLE jobs (
 );
 
 CREATE INDEX idx_jobs_status ON jobs(status);
+CREATE INDEX idx_jobs_created ON jobs(created_at, id);
+CREATE INDEX idx_jobs_status_created ON jobs(status, created_at, id);
 CREATE INDEX idx_jobs_order_id ON jobs(order_id);
+
+-- Finished orders and their jobs, moved out of the hot tables by the archiver; read by id only.
+CREATE TABLE orders_archive (
+  id UUID PRIMARY KEY,
+  version BIGINT NOT NULL,
+  created_by_end_user_id UUID NOT NULL,
+  origin_lat DOUBLE PRECISION NOT NULL,
+  origin_lng DOUBLE PRECISION NOT NULL,
+  destination_lat DOUBLE PRECISION NOT NULL,
+  destination_lng DOUBLE PRECISION NOT NULL,
+  status TEXT NOT NULL,
+  current_job_id UUID,
+  created_at TIMESTAMPTZ NOT NULL,
+  archived_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE TABLE jobs_archive (
+  id UUID PRIMARY KEY,
+  version BIGINT NOT NULL,
+  order_id UUID NOT NULL,
+  type TEXT NOT NULL,
+  status TEXT NOT NULL,
+  pickup_lat DOUBLE PRECISION NOT NULL,
+  pickup_lng DOUBLE PRECISION NOT NULL,
+  dropoff_lat DOUBLE PRECISION NOT NULL,
+  dropoff_lng DOUBLE PRECISION NOT NULL,
+  assigned_drone_id UUID,
+  excluded_drone_id UUID,
+  reserved_at TIMESTAMPTZ,
+  started_at TIMESTAMPTZ,
+  completed_at TIMESTAMPTZ,
+  failed_at TIMESTAMPTZ,
+  created_at TIMESTAMPTZ NOT NULL,
+  archived_at TIMESTAMPTZ NOT NULL
+);
+
+CREATE INDEX idx_jobs_archive_order_id ON jobs_archive(order_id);
+
+-- One row per scheduled task that must run on a single node; token is the fencing token.
+CREATE TABLE scheduler_lease (
+  name TEXT PRIMARY KEY,
+  owner TEXT NOT NULL,
+  token BIGINT NOT NULL,
+  expires_at TIMESTAMPTZ NOT NULL
+);
@@ -3,13 +3,14 @@ VALUES
   ('11111111-1111-1111-1111-111111111111', 'test-enduser-1'),
   ('22222222-2222-2222-2222-222222222222', 'test-enduser-2');
 
-INSERT INTO drone (id, name, status, last_lat, last_lng, last_heartbeat_at)
+INSERT INTO drone (id, name, status, last_lat, last_lng, last_heartbeat_at, created_at)
 VALUES
-  ('aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa', 'drone-alpha', 'ACTIVE', 24.7136, 46.6753, CURRENT_TIMESTAMP),
-  ('bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb', 'drone-bravo', 'ACTIVE', 24.7743, 46.7386, CURRENT_TIMESTAMP);
+  ('aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa', 'drone-alpha', 'ACTIVE', 24.7136, 46.6753, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
+  ('bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb', 'drone-bravo', 'ACTIVE', 24.7743, 46.7386, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 INSERT INTO delivery_order (
   id,
+  version,
   created_by_end_user_id,
   origin_lat,
   origin_lng,
@@ -22,6 +23,7 @@ INSERT INTO delivery_order (
 VALUES
   (
     '33333333-3333-3333-3333-333333333333',
+    0,
     '11111111-1111-1111-1111-111111111111',
     24.7136,
     46.6753,
@@ -33,6 +35,7 @@ VALUES
   ),
   (
     '55555555-5555-5555-5555-555555555555',
+    0,
     '22222222-2222-2222-2222-222222222222',
     24.7136,
     46.6753,
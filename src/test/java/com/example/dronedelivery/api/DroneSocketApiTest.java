@@ -0,0 +1,88 @@
+package com.example.dronedelivery.api;
+
+import com.example.dronedelivery.security.AuthRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class DroneSocketApiTest extends ApiTestSupport {
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void upgradeWithoutTokenIsRejected() {
+        assertThatThrownBy(() -> connect("", new WebSocketHttpHeaders(), new Recorder()))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void upgradeWithInvalidTokenIsRejected() {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setBearerAuth("not-a-jwt");
+
+        assertThatThrownBy(() -> connect("", headers, new Recorder())).isInstanceOf(ExecutionException.class);
+        assertThatThrownBy(() -> connect("?access_token=not-a-jwt", new WebSocketHttpHeaders(), new Recorder()))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void upgradeWithNonDroneTokenIsRejected() {
+        WebSocketHttpHeaders headers = new WebSocketHttpHeaders();
+        headers.setBearerAuth(tokenFor("socket-enduser", AuthRole.ENDUSER));
+
+        assertThatThrownBy(() -> connect("", headers, new Recorder())).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void droneGetsItsStateOnConnectAndIsClosedForBadTelemetry() throws Exception {
+        String droneToken = tokenFor("socket-drone", AuthRole.DRONE);
+        Recorder recorder = new Recorder();
+
+        WebSocketSession session = connect("?access_token=" + droneToken, new WebSocketHttpHeaders(), recorder);
+        assertThat(recorder.messages.poll(5, TimeUnit.SECONDS)).contains("\"type\":\"CLEAR\"");
+
+        session.sendMessage(new TextMessage("{\"location\":{}}"));
+        assertThat(recorder.closed.get(5, TimeUnit.SECONDS).getCode()).isEqualTo(CloseStatus.BAD_DATA.getCode());
+    }
+
+    private WebSocketSession connect(String query, WebSocketHttpHeaders headers, Recorder recorder) throws Exception {
+        return new StandardWebSocketClient()
+                .execute(recorder, headers, URI.create("ws://localhost:" + port + "/ws/drone" + query))
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private static final class Recorder extends TextWebSocketHandler {
+        private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        private final CompletableFuture<CloseStatus> closed = new CompletableFuture<>();
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+            messages.add(message.getPayload());
+        }
+
+        @Override
+        public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+            closed.complete(status);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -50,6 +51,28 @@ class EndUserApiTest extends ApiTestSupport {
         Assertions.assertThat(getResponse.getBody()).isNotNull();
     }
 
+    @Test
+    void orderPollingAnswersNotModifiedUntilTheOrderChanges() {
+        String token = tokenFor("enduser-etag", AuthRole.ENDUSER);
+        OrderDtos.OrderResponse order = submitOrder(token, 5.0, 6.0, 7.0, 8.0);
+
+        ResponseEntity<OrderDtos.OrderResponse> first = getOrder(token, order.id().toString(), null);
+        String etag = first.getHeaders().getETag();
+        Assertions.assertThat(etag).isNotBlank();
+
+        ResponseEntity<OrderDtos.OrderResponse> unchanged = getOrder(token, order.id().toString(), etag);
+        Assertions.assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(unchanged.getBody()).isNull();
+
+        restTemplate.exchange("/enduser/orders/" + order.id() + "/withdraw", HttpMethod.POST,
+                new HttpEntity<>(null, authHeaders(token)), OrderDtos.OrderResponse.class);
+
+        ResponseEntity<OrderDtos.OrderResponse> changed = getOrder(token, order.id().toString(), etag);
+        Assertions.assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(changed.getBody().status()).isEqualTo(com.example.dronedelivery.domain.OrderStatus.CANCELED);
+        Assertions.assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
     @Test
     void endUserCannotWithdrawAfterPickup() {
         String endUserToken = tokenFor("enduser-withdraw", AuthRole.ENDUSER);
@@ -68,4 +91,13 @@ class EndUserApiTest extends ApiTestSupport {
         );
         Assertions.assertThat(withdrawResponse.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
+
+    private ResponseEntity<OrderDtos.OrderResponse> getOrder(String token, String orderId, String ifNoneMatch) {
+        HttpHeaders headers = authHeaders(token);
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange("/enduser/orders/" + orderId, HttpMethod.GET, new HttpEntity<>(null, headers),
+                OrderDtos.OrderResponse.class);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.dronedelivery.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void carriesVersionVariantAndMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(UuidV7.millis(id)).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void idsIncreaseWithinAMillisecondAndWhenTheClockStepsBack() {
+        UuidV7 generator = new UuidV7();
+        long now = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.generate(now, -1L));
+        }
+        ids.add(generator.generate(now - 5_000, 0L));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(compareUnsigned(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+        // A full counter borrows the following milliseconds instead of wrapping.
+        assertThat(UuidV7.millis(ids.get(ids.size() - 1))).isGreaterThan(now);
+    }
+
+    /**
+     * Byte order, as databases compare {@code uuid} columns; {@link UUID#compareTo} compares signed halves.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
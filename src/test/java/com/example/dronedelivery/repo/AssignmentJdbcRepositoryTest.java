@@ -0,0 +1,81 @@
+package com.example.dronedelivery.repo;
+
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.domain.EndUser;
+import com.example.dronedelivery.domain.Job;
+import com.example.dronedelivery.domain.JobStatus;
+import com.example.dronedelivery.service.EndUserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AssignmentJdbcRepositoryTest {
+
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    EndUserRepository endUserRepository;
+    @Autowired
+    DroneRepository droneRepository;
+    @Autowired
+    JobRepository jobRepository;
+
+    @Test
+    void batchesWithoutRowCountsAreResolvedFromTheRows() {
+        // Reports every row as SUCCESS_NO_INFO, as some drivers do for batches.
+        AssignmentJdbcRepository repository = new AssignmentJdbcRepository(new JdbcTemplate(dataSource) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                int[][] counts = super.batchUpdate(sql, batchArgs, batchSize, pss);
+                for (int[] batch : counts) {
+                    Arrays.fill(batch, Statement.SUCCESS_NO_INFO);
+                }
+                return counts;
+            }
+        });
+        Job job = openJob("jdbc-no-info");
+        Job other = openJob("jdbc-no-info-other");
+        Drone winner = droneRepository.save(new Drone("jdbc-no-info-winner"));
+        Drone loser = droneRepository.save(new Drone("jdbc-no-info-loser"));
+
+        AssignmentJdbcRepository.Pair won = new AssignmentJdbcRepository.Pair(job.getId(), winner.getId());
+        assertThat(repository.reserveJobs(List.of(won,
+                new AssignmentJdbcRepository.Pair(job.getId(), loser.getId())), Instant.now()))
+                .containsExactly(true, false);
+        assertThat(repository.claimDrones(List.of(won))).containsExactly(true);
+
+        // The winner is busy now, so a second job cannot claim it.
+        AssignmentJdbcRepository.Pair busy = new AssignmentJdbcRepository.Pair(other.getId(), winner.getId());
+        assertThat(repository.reserveJobs(List.of(busy), Instant.now())).containsExactly(true);
+        assertThat(repository.claimDrones(List.of(busy))).containsExactly(false);
+        repository.reopenJobs(List.of(busy));
+
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getAssignedDroneId()).isEqualTo(winner.getId());
+        assertThat(jobRepository.findById(other.getId()).orElseThrow().getStatus()).isEqualTo(JobStatus.OPEN);
+        assertThat(droneRepository.findById(winner.getId()).orElseThrow().getCurrentJobId()).isEqualTo(job.getId());
+    }
+
+    private Job openJob(String name) {
+        EndUser endUser = endUserRepository.save(new EndUser(name + "-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 2.0, 3.0, 4.0);
+        return jobRepository.findById(order.getCurrentJobId()).orElseThrow();
+    }
+}
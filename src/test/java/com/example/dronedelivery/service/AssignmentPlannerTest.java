@@ -0,0 +1,148 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.Drone;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AssignmentPlannerTest {
+
+    private final Instant now = Instant.now();
+
+    @Test
+    void greedyGivesOldestJobItsClosestDrone() {
+        OpenJob older = job(0.9, now.minusSeconds(5), null);
+        OpenJob newer = job(-0.9, now, null);
+        Drone west = drone(0.0);
+        Drone east = drone(2.0);
+
+        var plan = planner(200).plan(AssignmentMode.GREEDY, List.of(older, newer), List.of(west, east), now);
+
+        assertThat(byJob(plan)).containsEntry(older.id(), west.getId()).containsEntry(newer.id(), east.getId());
+        assertThat(plan.greedyDistanceMeters()).isNull();
+    }
+
+    @Test
+    void optimalMinimizesTotalDistance() {
+        OpenJob older = job(0.9, now.minusSeconds(5), null);
+        OpenJob newer = job(-0.9, now, null);
+        Drone west = drone(0.0);
+        Drone east = drone(2.0);
+
+        for (int hungarianMaxSize : new int[]{200, 0}) {
+            var plan = planner(hungarianMaxSize).plan(AssignmentMode.OPTIMAL, List.of(older, newer), List.of(west, east), now);
+
+            assertThat(byJob(plan)).containsEntry(older.id(), east.getId()).containsEntry(newer.id(), west.getId());
+            assertThat(plan.totalDistanceMeters()).isLessThan(plan.greedyDistanceMeters());
+        }
+    }
+
+    @Test
+    void optimalServesOverdueJobsFirst() {
+        OpenJob overdue = job(0.9, now.minus(Duration.ofMinutes(10)), null);
+        OpenJob newer = job(-0.9, now, null);
+        Drone west = drone(0.0);
+        Drone east = drone(2.0);
+
+        var plan = planner(200).plan(AssignmentMode.OPTIMAL, List.of(overdue, newer), List.of(west, east), now);
+
+        assertThat(byJob(plan)).containsEntry(overdue.id(), west.getId());
+    }
+
+    @Test
+    void optimalRespectsExcludedDrone() {
+        Drone west = drone(0.0);
+        Drone east = drone(2.0);
+        OpenJob handoff = job(0.1, now, west.getId());
+
+        for (int hungarianMaxSize : new int[]{200, 0}) {
+            var plan = planner(hungarianMaxSize).plan(AssignmentMode.OPTIMAL, List.of(handoff), List.of(west, east), now);
+
+            assertThat(byJob(plan)).containsEntry(handoff.id(), east.getId());
+        }
+    }
+
+    @Test
+    void partitionedPlanAssignsEveryJobOnceAndReportsCells() {
+        Random random = new Random(7);
+        List<OpenJob> jobs = new ArrayList<>();
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            jobs.add(job(random.nextDouble() * 2, random.nextDouble() * 2, now.plusMillis(i)));
+        }
+        for (int i = 0; i < 400; i++) {
+            drones.add(drone(random.nextDouble() * 2, random.nextDouble() * 2));
+        }
+
+        for (AssignmentMode mode : AssignmentMode.values()) {
+            var planner = new AssignmentPlanner(mode, 120, 200, 8, 0.5, 0, 4);
+            var plan = planner.plan(jobs, drones, now);
+            planner.stop();
+
+            assertThat(byJob(plan)).hasSize(jobs.size());
+            assertThat(byJob(plan).values()).doesNotHaveDuplicates();
+            assertThat(plan.partitions()).extracting(AssignmentPlanner.PartitionTiming::cell)
+                    .contains("0.000,0.000", "border");
+        }
+    }
+
+    @Test
+    void partitionedPlanMeasuresAgainstTheWholeRoundsGreedyTotal() {
+        Random random = new Random(11);
+        List<OpenJob> jobs = new ArrayList<>();
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            jobs.add(job(random.nextDouble() * 2, random.nextDouble() * 2, now.plusMillis(i)));
+        }
+        for (int i = 0; i < 400; i++) {
+            drones.add(drone(random.nextDouble() * 2, random.nextDouble() * 2));
+        }
+
+        double greedyTotal = planner(200).plan(AssignmentMode.GREEDY, jobs, drones, now).totalDistanceMeters();
+        var partitioned = new AssignmentPlanner(AssignmentMode.OPTIMAL, 120, 200, 8, 0.5, 0, 4);
+        var plan = partitioned.plan(jobs, drones, now);
+        partitioned.stop();
+
+        assertThat(plan.partitions()).hasSizeGreaterThan(1);
+        assertThat(plan.greedyDistanceMeters()).isCloseTo(greedyTotal, within(1e-6));
+    }
+
+    private static AssignmentPlanner planner(int hungarianMaxSize) {
+        return new AssignmentPlanner(AssignmentMode.GREEDY, 120, hungarianMaxSize, 8, 0.5, Integer.MAX_VALUE, 1);
+    }
+
+    private static Map<UUID, UUID> byJob(AssignmentPlanner.Plan plan) {
+        return plan.assignments().stream()
+                .collect(Collectors.toMap(AssignmentPlanner.PlannedAssignment::jobId, AssignmentPlanner.PlannedAssignment::droneId));
+    }
+
+    private static OpenJob job(double lng, Instant createdAt, UUID excludedDroneId) {
+        return new OpenJob(UUID.randomUUID(), 0, 0.0, lng, excludedDroneId, createdAt);
+    }
+
+    private static OpenJob job(double lat, double lng, Instant createdAt) {
+        return new OpenJob(UUID.randomUUID(), 0, lat, lng, null, createdAt);
+    }
+
+    private static Drone drone(double lng) {
+        return drone(0.0, lng);
+    }
+
+    private static Drone drone(double lat, double lng) {
+        Drone drone = new Drone("planner-drone-" + lat + "-" + lng);
+        drone.setId(UUID.randomUUID());
+        drone.setLastLat(lat);
+        drone.setLastLng(lng);
+        return drone;
+    }
+}
@@ -13,6 +13,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
@@ -58,4 +60,24 @@ class DeliveryServiceHelperTest {
         assertThat(progress.currentLocation()).isNotNull();
         assertThat(progress.etaSecondsApprox()).isGreaterThanOrEqualTo(0);
     }
+
+    @Test
+    void batchProgressMatchesPerOrderProgress() {
+        EndUser endUser = endUserRepository.save(new EndUser("unit-progress-user3"));
+        DeliveryOrder waiting = endUserService.submitOrder(endUser.getId(), 1.0, 2.0, 3.0, 4.0);
+        DeliveryOrder flying = endUserService.submitOrder(endUser.getId(), 1.0, 2.0, 3.0, 4.0);
+        Drone drone = droneRepository.save(new Drone("unit-progress-drone3"));
+        droneService.heartbeat(drone.getId(), 1.5, 2.5);
+        droneService.reserveJob(drone.getId(), flying.getCurrentJobId());
+        droneService.pickupJob(drone.getId(), flying.getCurrentJobId());
+        droneService.heartbeat(drone.getId(), 2.0, 3.0);
+
+        var orders = orderRepository.findAllById(List.of(waiting.getId(), flying.getId()));
+        var progress = deliveryServiceHelper.computeProgress(orders);
+
+        assertThat(progress).containsOnlyKeys(flying.getId());
+        assertThat(progress.get(flying.getId()))
+                .isEqualTo(deliveryServiceHelper.computeProgress(orderRepository.findById(flying.getId()).orElseThrow()));
+        assertThat(progress.get(flying.getId()).currentLocation().lat()).isEqualTo(2.0);
+    }
 }
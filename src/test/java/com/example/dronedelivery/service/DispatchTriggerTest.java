@@ -0,0 +1,69 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.*;
+import com.example.dronedelivery.repo.DroneRepository;
+import com.example.dronedelivery.repo.EndUserRepository;
+import com.example.dronedelivery.repo.JobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.scheduler.event-driven-assignment=true",
+        "spring.datasource.url=jdbc:h2:mem:dispatch_trigger;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class DispatchTriggerTest {
+
+    @Autowired
+    DroneService droneService;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    DroneRepository droneRepository;
+    @Autowired
+    EndUserRepository endUserRepository;
+    @Autowired
+    JobRepository jobRepository;
+
+    @Test
+    void submittedOrderIsAssignedWithoutWaitingForTheTick() throws InterruptedException {
+        Drone drone = droneRepository.save(new Drone("trigger-drone"));
+        droneService.heartbeat(drone.getId(), 10.0, 10.0);
+        EndUser endUser = endUserRepository.save(new EndUser("trigger-user"));
+
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 10.01, 10.01, 11.0, 11.0);
+
+        Job job = awaitStatus(order.getCurrentJobId(), JobStatus.RESERVED, Duration.ofSeconds(3));
+        assertThat(job.getStatus()).isEqualTo(JobStatus.RESERVED);
+        assertThat(job.getAssignedDroneId()).isEqualTo(drone.getId());
+    }
+
+    @Test
+    void tickTightensWithBacklog() {
+        DispatchTrigger trigger = new DispatchTrigger(null, null, true, 250, 10, 1000, 50);
+
+        assertThat(trigger.tickDelayMillis(0)).isEqualTo(10_000);
+        assertThat(trigger.tickDelayMillis(10)).isEqualTo(10_000);
+        assertThat(trigger.tickDelayMillis(50)).isEqualTo(5_000);
+        assertThat(trigger.tickDelayMillis(10_000)).isEqualTo(1_000);
+        trigger.stop();
+    }
+
+    private Job awaitStatus(UUID jobId, JobStatus status, Duration timeout) throws InterruptedException {
+        Instant deadline = Instant.now().plus(timeout);
+        Job job = jobRepository.findById(jobId).orElseThrow();
+        while (job.getStatus() != status && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+            job = jobRepository.findById(jobId).orElseThrow();
+        }
+        return job;
+    }
+}
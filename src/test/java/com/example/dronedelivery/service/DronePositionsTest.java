@@ -0,0 +1,56 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.repo.DroneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DronePositionsTest {
+
+    @Autowired
+    DronePositions dronePositions;
+    @Autowired
+    DroneService droneService;
+    @Autowired
+    DroneRepository droneRepository;
+
+    @Test
+    void flushWritesTheLatestHeartbeat() {
+        Drone drone = droneRepository.save(new Drone("positions-flush-drone"));
+
+        droneService.heartbeat(drone.getId(), 5.0, 6.0);
+        var returned = droneService.heartbeat(drone.getId(), 7.0, 8.0);
+        assertThat(returned.drone().lastLocation().lat()).isEqualTo(7.0);
+
+        dronePositions.flush();
+
+        Drone stored = droneRepository.findById(drone.getId()).orElseThrow();
+        assertThat(stored.getLastLat()).isEqualTo(7.0);
+        assertThat(stored.getLastLng()).isEqualTo(8.0);
+        assertThat(stored.getLastHeartbeatAt()).isNotNull();
+    }
+
+    @Test
+    void olderPositionNeverOverwritesANewerRow() {
+        Drone drone = droneRepository.save(new Drone("positions-order-drone"));
+        Instant now = Instant.now();
+
+        dronePositions.record(drone.getId(), 1.0, 1.0, now);
+        dronePositions.flush();
+        // e.g. a slower node flushing a heartbeat it received earlier
+        dronePositions.record(drone.getId(), 2.0, 2.0, now.minusSeconds(10));
+        dronePositions.flush();
+
+        Drone stored = droneRepository.findById(drone.getId()).orElseThrow();
+        assertThat(stored.getLastLat()).isEqualTo(1.0);
+        assertThat(dronePositions.overlay(stored).getLastLat()).isEqualTo(1.0);
+    }
+}
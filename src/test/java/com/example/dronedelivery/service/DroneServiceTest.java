@@ -1,17 +1,23 @@
 package com.example.dronedelivery.service;
 
+import com.example.dronedelivery.api.dto.DroneDtos;
 import com.example.dronedelivery.domain.*;
 import com.example.dronedelivery.repo.DroneRepository;
 import com.example.dronedelivery.repo.EndUserRepository;
 import com.example.dronedelivery.repo.JobRepository;
 import com.example.dronedelivery.repo.OrderRepository;
+import org.assertj.core.api.ThrowableAssert;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -45,6 +51,23 @@ class DroneServiceTest {
                 .hasMessageContaining("Broken drones cannot reserve jobs");
     }
 
+    @Test
+    void nearestOpenJobsAreClosestFirstWithinRadius() {
+        EndUser endUser = endUserRepository.save(new EndUser("unit-nearest-user"));
+        DeliveryOrder here = endUserService.submitOrder(endUser.getId(), -40.0, 100.0, -40.5, 100.5);
+        DeliveryOrder near = endUserService.submitOrder(endUser.getId(), -40.01, 100.0, -40.5, 100.5);
+        endUserService.submitOrder(endUser.getId(), -41.0, 100.0, -40.5, 100.5);
+
+        Drone drone = droneRepository.save(new Drone("unit-nearest-drone"));
+        droneService.heartbeat(drone.getId(), -40.0, 100.0);
+
+        var nearest = droneService.nearestOpenJobs(drone.getId(), 5, 5_000.0);
+
+        assertThat(nearest).extracting(n -> n.job().id()).containsExactly(here.getCurrentJobId(), near.getCurrentJobId());
+        assertThat(nearest.get(0).distanceMeters()).isLessThan(1.0);
+        assertThat(nearest.get(1).distanceMeters()).isBetween(1_000.0, 1_200.0);
+    }
+
     @Test
     void excludedDroneCannotReserveHandoffJob() {
         EndUser endUser = endUserRepository.save(new EndUser("unit-excluded-user"));
@@ -70,9 +93,148 @@ class DroneServiceTest {
                 .hasMessageContaining("picked up by a different drone");
     }
 
+    @Test
+    void heartbeatReturnsCurrentAssignment() {
+        EndUser endUser = endUserRepository.save(new EndUser("unit-heartbeat-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 2.0, 3.0, 4.0);
+        Drone drone = droneRepository.save(new Drone("unit-heartbeat-drone"));
+
+        var idle = droneService.heartbeat(drone.getId(), 1.1, 2.1);
+        assertThat(idle.assignment()).isNull();
+        assertThat(idle.nextAction()).isEqualTo(DroneDtos.NextAction.RESERVE_JOB);
+
+        droneService.reserveJob(drone.getId(), order.getCurrentJobId());
+        var reserved = droneService.heartbeat(drone.getId(), 1.2, 2.2);
+
+        assertThat(reserved.drone().lastLocation().lat()).isEqualTo(1.2);
+        assertThat(reserved.drone().currentJobId()).isEqualTo(order.getCurrentJobId());
+        assertThat(reserved.assignment().jobId()).isEqualTo(order.getCurrentJobId());
+        assertThat(reserved.assignment().jobStatus()).isEqualTo(JobStatus.RESERVED);
+        assertThat(reserved.assignment().orderStatus()).isEqualTo(OrderStatus.SUBMITTED);
+        assertThat(reserved.nextAction()).isEqualTo(DroneDtos.NextAction.PICKUP);
+    }
+
+    @Test
+    void heartbeatForUnknownDroneIsNotFound() {
+        assertThatThrownBy(() -> droneService.heartbeat(UUID.randomUUID(), 1.0, 2.0))
+                .isInstanceOf(ApiException.class)
+                .hasMessageContaining("Drone not found");
+    }
+
     @Test
     void currentJobReturnsNullWhenNoneAssigned() {
         Drone drone = droneRepository.save(new Drone("unit-no-job"));
         assertThat(droneService.getCurrentJobForDrone(drone.getId())).isNull();
     }
+
+    @Test
+    void failedReservationRollsBackTheJobUpdate() {
+        Job job = openJob("unit-rollback");
+        Drone drone = droneRepository.save(new Drone("unit-rollback-drone"));
+        drone.setStatus(DroneStatus.BROKEN);
+        droneRepository.save(drone);
+
+        // The job row is updated before the drone row refuses the assignment.
+        assertThat(rejection(() -> droneService.reserveJob(drone.getId(), job.getId()))).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        Job after = jobRepository.findById(job.getId()).orElseThrow();
+        assertThat(after.getStatus()).isEqualTo(JobStatus.OPEN);
+        assertThat(after.getAssignedDroneId()).isNull();
+        assertThat(after.getVersion()).isEqualTo(job.getVersion());
+        assertThat(droneRepository.findById(drone.getId()).orElseThrow().getCurrentJobId()).isNull();
+    }
+
+    @Test
+    void transitionsBumpJobAndOrderVersionsOnce() {
+        Job job = openJob("unit-versions");
+        long orderVersion = orderRepository.findById(job.getOrderId()).orElseThrow().getVersion();
+        Drone drone = droneRepository.save(new Drone("unit-versions-drone"));
+
+        Job reserved = droneService.reserveJob(drone.getId(), job.getId());
+        assertThat(reserved.getVersion()).isEqualTo(job.getVersion() + 1);
+        assertThat(orderRepository.findById(job.getOrderId()).orElseThrow().getVersion()).isEqualTo(orderVersion);
+
+        Job started = droneService.pickupJob(drone.getId(), job.getId());
+        assertThat(started.getVersion()).isEqualTo(job.getVersion() + 2);
+        DeliveryOrder order = orderRepository.findById(job.getOrderId()).orElseThrow();
+        assertThat(order.getVersion()).isEqualTo(orderVersion + 1);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.IN_DELIVERY);
+    }
+
+    @Test
+    void reservingATakenJobConflicts() {
+        Job job = openJob("unit-taken");
+        Drone first = droneRepository.save(new Drone("unit-taken-first"));
+        Drone second = droneRepository.save(new Drone("unit-taken-second"));
+        droneService.reserveJob(first.getId(), job.getId());
+
+        assertThat(rejection(() -> droneService.reserveJob(second.getId(), job.getId()))).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getAssignedDroneId()).isEqualTo(first.getId());
+    }
+
+    @Test
+    void pickupByAnotherDroneIsForbidden() {
+        Job job = openJob("unit-wrong-drone");
+        Drone owner = droneRepository.save(new Drone("unit-wrong-drone-owner"));
+        Drone other = droneRepository.save(new Drone("unit-wrong-drone-other"));
+        droneService.reserveJob(owner.getId(), job.getId());
+
+        assertThat(rejection(() -> droneService.pickupJob(other.getId(), job.getId()))).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(rejection(() -> droneService.completeJob(other.getId(), job.getId()))).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void transitionsFromTheWrongStatusAreBadRequests() {
+        Job job = openJob("unit-wrong-status");
+        Drone drone = droneRepository.save(new Drone("unit-wrong-status-drone"));
+        droneService.reserveJob(drone.getId(), job.getId());
+
+        assertThat(rejection(() -> droneService.completeJob(drone.getId(), job.getId()))).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(rejection(() -> droneService.failJob(drone.getId(), job.getId()))).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        droneService.pickupJob(drone.getId(), job.getId());
+        assertThat(rejection(() -> droneService.pickupJob(drone.getId(), job.getId()))).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus()).isEqualTo(JobStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void completingAJobTheOrderMovedOnFromConflicts() {
+        Job job = openJob("unit-moved-on");
+        Drone drone = droneRepository.save(new Drone("unit-moved-on-drone"));
+        droneService.reserveJob(drone.getId(), job.getId());
+        droneService.pickupJob(drone.getId(), job.getId());
+        DeliveryOrder order = orderRepository.findById(job.getOrderId()).orElseThrow();
+        order.setCurrentJobId(UUID.randomUUID());
+        orderRepository.save(order);
+
+        assertThat(rejection(() -> droneService.completeJob(drone.getId(), job.getId()))).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus()).isEqualTo(JobStatus.IN_PROGRESS);
+        assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.IN_DELIVERY);
+    }
+
+    @Test
+    void brokenDroneCannotPickUpItsReservation() {
+        Job job = openJob("unit-broken-pickup");
+        Drone drone = droneRepository.save(new Drone("unit-broken-pickup-drone"));
+        droneService.reserveJob(drone.getId(), job.getId());
+        Drone reserved = droneRepository.findById(drone.getId()).orElseThrow();
+        reserved.setStatus(DroneStatus.BROKEN);
+        droneRepository.save(reserved);
+
+        assertThat(rejection(() -> droneService.pickupJob(drone.getId(), job.getId()))).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(jobRepository.findById(job.getId()).orElseThrow().getStatus()).isEqualTo(JobStatus.RESERVED);
+        assertThat(orderRepository.findById(job.getOrderId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.SUBMITTED);
+    }
+
+    private Job openJob(String name) {
+        EndUser endUser = endUserRepository.save(new EndUser(name + "-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 2.0, 3.0, 4.0);
+        return jobRepository.findById(order.getCurrentJobId()).orElseThrow();
+    }
+
+    private static HttpStatus rejection(ThrowableAssert.ThrowingCallable call) {
+        Throwable thrown = catchThrowable(call);
+        assertThat(thrown).isInstanceOf(ApiException.class);
+        return ((ApiException) thrown).getStatus();
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.*;
+import com.example.dronedelivery.repo.DroneRepository;
+import com.example.dronedelivery.repo.EndUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DroneSessionRegistryTest {
+
+    @Autowired
+    DroneSessionRegistry registry;
+    @Autowired
+    DroneService droneService;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    DroneRepository droneRepository;
+    @Autowired
+    EndUserRepository endUserRepository;
+
+    @Test
+    void pushesCurrentStateOnConnectAndAssignmentsAsTheyHappen() throws Exception {
+        Drone drone = droneRepository.save(new Drone("session-drone"));
+        WebSocketSession session = openSession();
+
+        registry.register(drone.getId(), session);
+        verify(session, timeout(2000)).sendMessage(argThat(m -> payload(m).contains("\"type\":\"CLEAR\"")));
+
+        EndUser endUser = endUserRepository.save(new EndUser("session-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        Job job = droneService.reserveJob(drone.getId(), order.getCurrentJobId());
+
+        verify(session, timeout(2000)).sendMessage(argThat(m ->
+                payload(m).contains("\"type\":\"ASSIGN\"") && payload(m).contains(job.getId().toString())));
+        registry.unregister(drone.getId(), session);
+    }
+
+    @Test
+    void newerSessionReplacesTheOlderOne() throws Exception {
+        Drone drone = droneRepository.save(new Drone("session-replaced-drone"));
+        WebSocketSession older = openSession();
+        WebSocketSession newer = openSession();
+
+        registry.register(drone.getId(), older);
+        registry.register(drone.getId(), newer);
+        registry.unregister(drone.getId(), older);
+
+        verify(older).close(any(CloseStatus.class));
+        verify(newer, timeout(2000)).sendMessage(any());
+        registry.unregister(drone.getId(), newer);
+    }
+
+    @Test
+    void assignmentsChangedWithoutALocalEventArePushedByTheRefresh() throws Exception {
+        Drone drone = droneRepository.save(new Drone("session-remote-drone"));
+        WebSocketSession session = openSession();
+        registry.register(drone.getId(), session);
+        verify(session, timeout(2000)).sendMessage(argThat(m -> payload(m).contains("\"type\":\"CLEAR\"")));
+
+        // As another node would: the rows change, but no event is published here.
+        EndUser endUser = endUserRepository.save(new EndUser("session-remote-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        Drone assigned = droneRepository.findById(drone.getId()).orElseThrow();
+        assigned.setCurrentJobId(order.getCurrentJobId());
+        droneRepository.save(assigned);
+
+        registry.refresh();
+
+        verify(session, timeout(2000)).sendMessage(argThat(m ->
+                payload(m).contains("\"type\":\"ASSIGN\"") && payload(m).contains(order.getCurrentJobId().toString())));
+        registry.unregister(drone.getId(), session);
+    }
+
+    private static WebSocketSession openSession() {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private static String payload(Object message) {
+        return message instanceof TextMessage text ? text.getPayload() : "";
+    }
+}
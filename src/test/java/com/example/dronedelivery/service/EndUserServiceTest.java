@@ -9,6 +9,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -35,6 +39,43 @@ class EndUserServiceTest {
         assertThat(job.getStatus()).isEqualTo(JobStatus.OPEN);
     }
 
+    @Test
+    void listOrdersPagesWithoutGapsOrRepeats() {
+        EndUser endUser = endUserRepository.save(new EndUser("unit-page-user"));
+        List<UUID> submitted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            submitted.add(endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0).getId());
+        }
+        endUserService.withdrawOrder(endUser.getId(), submitted.get(2));
+
+        List<UUID> seen = new ArrayList<>();
+        KeysetPager.Cursor after = null;
+        do {
+            var page = endUserService.listOrdersForEndUser(endUser.getId(), null, null, null, after, 2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            page.items().forEach(o -> seen.add(o.getId()));
+            after = page.next();
+        } while (after != null);
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(submitted).doesNotHaveDuplicates();
+        assertThat(endUserService.listOrdersForEndUser(endUser.getId(), OrderStatus.CANCELED, null, null, null, null).items())
+                .extracting(DeliveryOrder::getId)
+                .containsExactly(submitted.get(2));
+        assertThatThrownBy(() -> KeysetPager.Cursor.decode("not-a-cursor"))
+                .isInstanceOf(ApiException.class);
+    }
+
+    @Test
+    void cachedOrderViewIsInvalidatedByWithdraw() {
+        EndUser endUser = endUserRepository.save(new EndUser("unit-cache-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 2.0, 3.0, 4.0, 5.0);
+
+        assertThat(endUserService.getOrderViewForEndUser(endUser.getId(), order.getId()).status()).isEqualTo(OrderStatus.SUBMITTED);
+        endUserService.withdrawOrder(endUser.getId(), order.getId());
+
+        assertThat(endUserService.getOrderViewForEndUser(endUser.getId(), order.getId()).status()).isEqualTo(OrderStatus.CANCELED);
+    }
+
     @Test
     void withdrawFailsForNonOwner() {
         EndUser owner = endUserRepository.save(new EndUser("unit-owner"));
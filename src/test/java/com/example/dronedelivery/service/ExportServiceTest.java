@@ -0,0 +1,68 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.EndUser;
+import com.example.dronedelivery.repo.EndUserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ExportServiceTest {
+
+    @Autowired
+    ExportService exportService;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    EndUserRepository endUserRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void exportsOrdersAsNdjsonAndCsv() throws Exception {
+        Instant from = Instant.now().minusMillis(1);
+        EndUser endUser = endUserRepository.save(new EndUser("unit-export-user"));
+        List<DeliveryOrder> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(endUserService.submitOrder(endUser.getId(), 1.0, 2.0, 3.0, 4.0 + i));
+        }
+        Instant to = Instant.now().plusSeconds(1);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        exportService.exportOrders(ExportService.Format.NDJSON, from, to, ndjson);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).extracting(n -> n.get("id").asText())
+                .containsExactlyElementsOf(orders.stream().map(o -> o.getId().toString()).toList());
+        assertThat(lines.get(2).get("destinationLng").asDouble()).isEqualTo(6.0);
+        assertThat(lines.get(0).get("status").asText()).isEqualTo("SUBMITTED");
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.exportJobs(ExportService.Format.CSV, from, to, csv);
+        String[] rows = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(rows[0]).startsWith("id,orderId,type,status,");
+        assertThat(rows).hasSize(4);
+        assertThat(rows[1]).contains(orders.get(0).getId().toString(), "OPEN");
+    }
+
+    @Test
+    void csvFieldsAreQuotedOnlyWhenNeeded() {
+        assertThat(ExportService.csvField("OPEN")).isEqualTo("OPEN");
+        assertThat(ExportService.csvField("a,\"b\"")).isEqualTo("\"a,\"\"b\"\"\"");
+    }
+}
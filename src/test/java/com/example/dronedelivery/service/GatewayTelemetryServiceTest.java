@@ -0,0 +1,117 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.api.dto.DroneDtos;
+import com.example.dronedelivery.domain.*;
+import com.example.dronedelivery.repo.DroneRepository;
+import com.example.dronedelivery.repo.EndUserRepository;
+import com.example.dronedelivery.repo.JobRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.gateway.telemetry-batch-size=2",
+        "spring.datasource.url=jdbc:h2:mem:gateway_telemetry;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class GatewayTelemetryServiceTest {
+
+    @Autowired
+    GatewayTelemetryService telemetryService;
+    @Autowired
+    DroneService droneService;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    DronePositions dronePositions;
+    @Autowired
+    DroneRepository droneRepository;
+    @Autowired
+    EndUserRepository endUserRepository;
+    @Autowired
+    JobRepository jobRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    void streamsDeltasOnlyForChangedOrRejectedDrones() throws IOException {
+        EndUser endUser = endUserRepository.save(new EndUser("gateway-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        Drone idle = droneRepository.save(new Drone("gateway-idle-drone"));
+        Drone assigned = droneRepository.save(new Drone("gateway-assigned-drone"));
+        Job job = droneService.reserveJob(assigned.getId(), order.getCurrentJobId());
+        UUID unknown = UUID.randomUUID();
+
+        String body = """
+                {"droneId":"%s","location":{"lat":5.0,"lng":6.0}}
+                {"droneId":"%s","location":{"lat":1.1,"lng":1.1}}
+                {"droneId":"%s","location":{"lat":0.0,"lng":0.0}}
+                {"droneId":"%s"}
+                """.formatted(idle.getId(), assigned.getId(), unknown, idle.getId());
+
+        List<DroneDtos.TelemetryDelta> deltas = ingest(body);
+
+        assertThat(deltas).hasSize(3);
+        assertThat(deltas).filteredOn(d -> d.error() == null).singleElement().satisfies(d -> {
+            assertThat(d.droneId()).isEqualTo(assigned.getId());
+            assertThat(d.assignment().jobId()).isEqualTo(job.getId());
+            assertThat(d.nextAction()).isEqualTo(DroneDtos.NextAction.PICKUP);
+        });
+        assertThat(deltas).filteredOn(d -> d.error() != null).extracting(DroneDtos.TelemetryDelta::droneId)
+                .containsExactlyInAnyOrder(unknown, idle.getId());
+        assertThat(dronePositions.overlay(droneRepository.findById(idle.getId()).orElseThrow()).getLastLat()).isEqualTo(5.0);
+    }
+
+    @Test
+    void acceptsAJsonArrayAndSkipsUnchangedAssignments() throws IOException {
+        EndUser endUser = endUserRepository.save(new EndUser("gateway-array-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        Drone assigned = droneRepository.save(new Drone("gateway-array-drone"));
+        Job job = droneService.reserveJob(assigned.getId(), order.getCurrentJobId());
+
+        String body = """
+                [{"droneId":"%s","location":{"lat":1.0,"lng":1.0},"jobId":"%s","jobStatus":"RESERVED"}]
+                """.formatted(assigned.getId(), job.getId());
+
+        assertThat(ingest(body)).isEmpty();
+    }
+
+    @Test
+    void malformedReportEndsTheStreamWithAnError() throws IOException {
+        Drone drone = droneRepository.save(new Drone("gateway-malformed-drone"));
+
+        String body = """
+                {"droneId":"%s","location":{"lat":3.0,"lng":4.0}}
+                {"droneId":
+                """.formatted(drone.getId());
+
+        List<DroneDtos.TelemetryDelta> deltas = ingest(body);
+
+        assertThat(deltas).singleElement().satisfies(d -> assertThat(d.error()).startsWith("Malformed telemetry"));
+        assertThat(dronePositions.overlay(droneRepository.findById(drone.getId()).orElseThrow()).getLastLat()).isEqualTo(3.0);
+    }
+
+    private List<DroneDtos.TelemetryDelta> ingest(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        telemetryService.ingest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        List<DroneDtos.TelemetryDelta> deltas = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                deltas.add(objectMapper.readValue(line, DroneDtos.TelemetryDelta.class));
+            }
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.dronedelivery.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class GeoIndexTest {
+
+    record Point(int id, double lat, double lng) {}
+
+    @Test
+    void nearestMatchesBruteForceWithExclusionAndRemoval() {
+        Random random = new Random(42);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            points.add(new Point(i, 24 + random.nextDouble(), 46 + random.nextDouble()));
+        }
+        GeoIndex<Integer> index = GeoIndex.build(points, Point::id, Point::lat, Point::lng);
+        List<Point> remaining = new ArrayList<>(points);
+
+        for (int q = 0; q < 200; q++) {
+            double lat = 24 + random.nextDouble();
+            double lng = 46 + random.nextDouble();
+            int excluded = random.nextInt(points.size());
+
+            Point expected = remaining.stream()
+                    .filter(p -> p.id() != excluded)
+                    .min(Comparator.comparingDouble(p -> GeoUtil.haversineMeters(lat, lng, p.lat(), p.lng())))
+                    .orElseThrow();
+            GeoIndex.Hit<Integer> hit = index.nearest(lat, lng, id -> id != excluded);
+
+            assertThat(hit).isNotNull();
+            assertThat(hit.distanceMeters())
+                    .isCloseTo(GeoUtil.haversineMeters(lat, lng, expected.lat(), expected.lng()), offset(0.01));
+
+            index.remove(hit.key());
+            remaining.removeIf(p -> p.id() == hit.key());
+        }
+        assertThat(index.size()).isEqualTo(remaining.size());
+    }
+
+    @Test
+    void nearestWithLimitRespectsRadius() {
+        List<Point> points = List.of(
+                new Point(1, 10.0, 10.0),
+                new Point(2, 10.01, 10.0),
+                new Point(3, 11.0, 10.0)
+        );
+        GeoIndex<Integer> index = GeoIndex.build(points, Point::id, Point::lat, Point::lng);
+
+        var hits = index.nearest(10.0, 10.0, 5, 5_000, id -> true);
+
+        assertThat(hits).extracting(GeoIndex.Hit::key).containsExactly(1, 2);
+    }
+
+    @Test
+    void emptyIndexReturnsNothing() {
+        GeoIndex<Integer> index = GeoIndex.build(List.<Point>of(), Point::id, Point::lat, Point::lng);
+        assertThat(index.nearest(0, 0, id -> true)).isNull();
+    }
+}
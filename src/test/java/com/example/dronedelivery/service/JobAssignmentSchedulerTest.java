@@ -9,12 +9,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -23,6 +30,16 @@ class JobAssignmentSchedulerTest {
     @Autowired
     JobAssignmentScheduler scheduler;
     @Autowired
+    AssignmentCommitter committer;
+    @Autowired
+    OpenJobQueue openJobQueue;
+    @Autowired
+    SchedulerLeases leases;
+    @Autowired
+    HeartbeatDeadlines heartbeatDeadlines;
+    @SpyBean
+    DeliveryServiceHelper helper;
+    @Autowired
     DroneService droneService;
     @Autowired
     EndUserService endUserService;
@@ -41,6 +58,8 @@ class JobAssignmentSchedulerTest {
         orderRepository.deleteAll();
         droneRepository.deleteAll();
         endUserRepository.deleteAll();
+        // Rows were removed behind the application's back.
+        openJobQueue.reconcile();
     }
 
     @Test
@@ -78,4 +97,64 @@ class JobAssignmentSchedulerTest {
         Drone refreshed = droneRepository.findById(drone.getId()).orElseThrow();
         assertThat(refreshed.getStatus()).isEqualTo(DroneStatus.BROKEN);
     }
+
+    @Test
+    void expiredHeartbeatDeadlineMarksDroneBroken() throws InterruptedException {
+        // The first check with a lease sweeps every drone; only later ones act on expired deadlines.
+        scheduler.expireStaleDrones();
+        clearInvocations(helper);
+
+        Drone drone = droneRepository.save(new Drone("scheduler-expired-drone"));
+        Instant lastHeartbeatAt = Instant.now().minus(Duration.ofMinutes(10));
+        drone.setStatus(DroneStatus.ACTIVE);
+        drone.setLastHeartbeatAt(lastHeartbeatAt);
+        droneRepository.save(drone);
+        heartbeatDeadlines.arm(drone.getId(), lastHeartbeatAt);
+
+        Instant deadline = Instant.now().plusSeconds(3);
+        Drone refreshed = droneRepository.findById(drone.getId()).orElseThrow();
+        while (refreshed.getStatus() != DroneStatus.BROKEN && Instant.now().isBefore(deadline)) {
+            Thread.sleep(100);
+            scheduler.expireStaleDrones();
+            refreshed = droneRepository.findById(drone.getId()).orElseThrow();
+        }
+        assertThat(refreshed.getStatus()).isEqualTo(DroneStatus.BROKEN);
+        verify(helper).markStaleDronesBroken(any(), argThat(ids -> ids.contains(drone.getId())));
+        verify(helper, never()).sweepStaleDrones(any());
+    }
+
+    @Test
+    void commitReportsPairsThatLostTheRace() {
+        EndUser endUser = endUserRepository.save(new EndUser("scheduler-race-user"));
+        DeliveryOrder first = endUserService.submitOrder(endUser.getId(), 10.0, 10.0, 20.0, 20.0);
+        DeliveryOrder second = endUserService.submitOrder(endUser.getId(), 10.0, 10.0, 20.0, 20.0);
+
+        Drone free = droneRepository.save(new Drone("scheduler-race-free"));
+        Drone busy = droneRepository.save(new Drone("scheduler-race-busy"));
+        droneService.heartbeat(free.getId(), 10.0, 10.0);
+        droneService.heartbeat(busy.getId(), 10.0, 10.0);
+        droneService.reserveJob(busy.getId(), second.getCurrentJobId());
+
+        DeliveryOrder third = endUserService.submitOrder(endUser.getId(), 10.0, 10.0, 20.0, 20.0);
+        var lease = leases.current(JobAssignmentScheduler.ASSIGNMENT_LEASE).orElseThrow();
+        var result = committer.commit(lease, List.of(
+                new AssignmentPlanner.PlannedAssignment(first.getCurrentJobId(), free.getId(), 0),
+                new AssignmentPlanner.PlannedAssignment(third.getCurrentJobId(), busy.getId(), 0)
+        ));
+
+        assertThat(result.committed()).extracting(AssignmentPlanner.PlannedAssignment::jobId)
+                .containsExactly(first.getCurrentJobId());
+        assertThat(result.closedJobIds()).isEmpty();
+        assertThat(result.lostDroneIds()).containsExactly(busy.getId());
+
+        Job reserved = jobRepository.findById(first.getCurrentJobId()).orElseThrow();
+        assertThat(reserved.getStatus()).isEqualTo(JobStatus.RESERVED);
+        assertThat(reserved.getAssignedDroneId()).isEqualTo(free.getId());
+        assertThat(droneRepository.findById(free.getId()).orElseThrow().getCurrentJobId()).isEqualTo(reserved.getId());
+
+        Job stillOpen = jobRepository.findById(third.getCurrentJobId()).orElseThrow();
+        assertThat(stillOpen.getStatus()).isEqualTo(JobStatus.OPEN);
+        assertThat(stillOpen.getAssignedDroneId()).isNull();
+        assertThat(droneRepository.findById(busy.getId()).orElseThrow().getCurrentJobId()).isEqualTo(second.getCurrentJobId());
+    }
 }
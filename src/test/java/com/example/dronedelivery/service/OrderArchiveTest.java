@@ -0,0 +1,100 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.EndUser;
+import com.example.dronedelivery.domain.OrderStatus;
+import com.example.dronedelivery.repo.EndUserRepository;
+import com.example.dronedelivery.repo.JobRepository;
+import com.example.dronedelivery.repo.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order_archive;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class OrderArchiveTest {
+
+    @Autowired
+    OrderArchive orderArchive;
+    @Autowired
+    SchedulerLeases leases;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    EndUserRepository endUserRepository;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    JobRepository jobRepository;
+
+    @Test
+    void finishedOrdersMoveToTheArchiveAndStayReadableById() {
+        EndUser endUser = endUserRepository.save(new EndUser("archive-user"));
+        DeliveryOrder finished = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        endUserService.withdrawOrder(endUser.getId(), finished.getId());
+        DeliveryOrder open = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        VersionTag tag = endUserService.getOrderVersionForEndUser(endUser.getId(), finished.getId());
+
+        var lease = leases.current(ArchiveScheduler.ARCHIVE_LEASE).orElseThrow();
+        var chunk = orderArchive.archiveChunk(lease, Instant.now().plusSeconds(1), 100);
+
+        assertThat(chunk.orders()).isEqualTo(1);
+        assertThat(chunk.jobs()).isEqualTo(1);
+        assertThat(orderRepository.findById(finished.getId())).isEmpty();
+        assertThat(jobRepository.findById(finished.getCurrentJobId())).isEmpty();
+        assertThat(orderRepository.findById(open.getId())).isPresent();
+
+        assertThat(endUserService.getOrderViewForEndUser(endUser.getId(), finished.getId()).status())
+                .isEqualTo(OrderStatus.CANCELED);
+        assertThat(endUserService.getOrderVersionForEndUser(endUser.getId(), finished.getId())).isEqualTo(tag);
+    }
+
+    @Test
+    void schedulerArchivesChunkAfterChunk() throws InterruptedException {
+        EndUser endUser = endUserRepository.save(new EndUser("archive-scheduler-user"));
+        List<DeliveryOrder> finished = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+            endUserService.withdrawOrder(endUser.getId(), order.getId());
+            finished.add(order);
+        }
+        Thread.sleep(5);
+
+        new ArchiveScheduler(orderArchive, leases, true, 0, 1, 10, 60).archive();
+
+        for (DeliveryOrder order : finished) {
+            assertThat(orderRepository.findById(order.getId())).isEmpty();
+            assertThat(endUserService.getOrderViewForEndUser(endUser.getId(), order.getId()).status())
+                    .isEqualTo(OrderStatus.CANCELED);
+        }
+    }
+
+    @Test
+    void schedulerStopsWhenTheLeaseIsLost() throws InterruptedException {
+        EndUser endUser = endUserRepository.save(new EndUser("archive-lost-lease-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        endUserService.withdrawOrder(endUser.getId(), order.getId());
+        Thread.sleep(5);
+
+        // A lease another node has since taken over: the fence check in the chunk's transaction rejects it.
+        SchedulerLeases stale = mock(SchedulerLeases.class);
+        when(stale.current(ArchiveScheduler.ARCHIVE_LEASE))
+                .thenReturn(Optional.of(new SchedulerLeases.Lease(ArchiveScheduler.ARCHIVE_LEASE, Long.MIN_VALUE)));
+
+        new ArchiveScheduler(orderArchive, stale, true, 0, 1, 10, 60).archive();
+
+        assertThat(orderRepository.findById(order.getId())).isPresent();
+        // Leave no finished order behind for the other tests' chunks.
+        orderArchive.archiveChunk(leases.current(ArchiveScheduler.ARCHIVE_LEASE).orElseThrow(), Instant.now(), 100);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.api.dto.OrderDtos;
+import com.example.dronedelivery.domain.DeliveryOrder;
+import com.example.dronedelivery.domain.Drone;
+import com.example.dronedelivery.domain.EndUser;
+import com.example.dronedelivery.domain.OrderStatus;
+import com.example.dronedelivery.repo.DroneRepository;
+import com.example.dronedelivery.repo.EndUserRepository;
+import com.example.dronedelivery.repo.JobRepository;
+import com.example.dronedelivery.repo.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order_tracker;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class OrderTrackerTest {
+
+    @Autowired
+    OrderTracker orderTracker;
+    @Autowired
+    EndUserService endUserService;
+    @Autowired
+    EndUserRepository endUserRepository;
+    @Autowired
+    DroneService droneService;
+    @Autowired
+    DroneRepository droneRepository;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    JobRepository jobRepository;
+    @Autowired
+    DronePositions dronePositions;
+
+    @Test
+    void watchersOfOneOrderShareATopicThatEndsWithTheOrder() throws InterruptedException {
+        EndUser endUser = endUserRepository.save(new EndUser("tracker-user"));
+        DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+        int before = orderTracker.watchedOrders();
+
+        orderTracker.watchOrder(order);
+        orderTracker.watchOrder(order);
+        assertThat(orderTracker.watchedOrders()).isEqualTo(before + 1);
+
+        endUserService.withdrawOrder(endUser.getId(), order.getId());
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(3));
+        while (orderTracker.watchedOrders() > before && Instant.now().isBefore(deadline)) {
+            Thread.sleep(50);
+        }
+        assertThat(orderTracker.watchedOrders()).isEqualTo(before);
+    }
+
+    @Test
+    void jobChangesPushOrderAndProgressEventsToTheOrdersWatchers() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        // Not a bean: events are handed to it directly, and it hands out the recording emitter.
+        OrderTracker tracker = new OrderTracker(orderRepository, jobRepository, dronePositions, 1, 1) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitter;
+            }
+        };
+        try {
+            EndUser endUser = endUserRepository.save(new EndUser("tracker-events-user"));
+            DeliveryOrder order = endUserService.submitOrder(endUser.getId(), 1.0, 1.0, 2.0, 2.0);
+            UUID jobId = order.getCurrentJobId();
+            Drone drone = droneRepository.save(new Drone("tracker-events-drone"));
+            droneService.heartbeat(drone.getId(), 1.5, 1.5);
+
+            tracker.watchOrder(order);
+            OrderDtos.OrderResponse submitted = emitter.next("order", OrderDtos.OrderResponse.class);
+            assertThat(submitted.id()).isEqualTo(order.getId());
+            assertThat(submitted.status()).isEqualTo(OrderStatus.SUBMITTED);
+            assertThat(submitted.progress()).isNull();
+
+            droneService.reserveJob(drone.getId(), jobId);
+            tracker.onJobChanged(JobChanged.of(jobId));
+            OrderDtos.OrderResponse reserved = emitter.next("order", OrderDtos.OrderResponse.class);
+            assertThat(reserved.status()).isEqualTo(OrderStatus.SUBMITTED);
+            assertThat(reserved.progress().currentLocation().lat()).isEqualTo(1.5);
+
+            droneService.pickupJob(drone.getId(), jobId);
+            tracker.onJobChanged(JobChanged.of(jobId));
+            OrderDtos.OrderResponse inDelivery = emitter.next("order", OrderDtos.OrderResponse.class);
+            assertThat(inDelivery.status()).isEqualTo(OrderStatus.IN_DELIVERY);
+            assertThat(inDelivery.progress().currentLocation().lat()).isEqualTo(1.5);
+
+            // The order row is unchanged, so a drone event that moved it only sends progress.
+            droneService.heartbeat(drone.getId(), 1.6, 1.6);
+            tracker.onAssignmentChanged(DroneAssignmentChanged.of(drone.getId()));
+            OrderDtos.ProgressUpdate progress = emitter.next("progress", OrderDtos.ProgressUpdate.class);
+            assertThat(progress.orderId()).isEqualTo(order.getId());
+            assertThat(progress.progress().currentLocation().lat()).isEqualTo(1.6);
+
+            // Jobs and drones no watched order follows reload nothing.
+            tracker.onJobChanged(JobChanged.of(UUID.randomUUID()));
+            tracker.onAssignmentChanged(DroneAssignmentChanged.of(UUID.randomUUID()));
+            assertThat(emitter.events.poll(300, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            tracker.stop();
+        }
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<List<Object>> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData).toList());
+        }
+
+        <T> T next(String name, Class<T> type) throws InterruptedException {
+            List<Object> event = events.poll(3, TimeUnit.SECONDS);
+            assertThat(event).as("%s event", name).isNotNull();
+            assertThat(event.get(0).toString()).startsWith("event:" + name + "\n");
+            return type.cast(event.get(1));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.dronedelivery.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadThroughCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final Map<String, Integer> rows = new HashMap<>(Map.of("a", 1, "b", 2, "c", 3));
+    private int loads;
+
+    @Test
+    void loadsMissesOnceAndCountsHits() {
+        var cache = cache(10);
+
+        assertThat(cache.getAll(List.of("a", "b", "x"), this::load)).containsOnly(Map.entry("a", 1), Map.entry("b", 2));
+        assertThat(cache.getAll(List.of("a", "b"), this::load)).containsOnly(Map.entry("a", 1), Map.entry("b", 2));
+
+        assertThat(loads).isEqualTo(1);
+        var stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(2);
+        assertThat(stats.misses()).isEqualTo(3);
+        assertThat(stats.size()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        var cache = cache(2);
+        cache.get("a", this::loadOne);
+        cache.get("b", this::loadOne);
+        cache.get("a", this::loadOne);
+        cache.get("c", this::loadOne);
+
+        cache.get("a", this::loadOne);
+        cache.get("b", this::loadOne);
+
+        assertThat(loads).isEqualTo(4);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        var cache = cache(10);
+        cache.get("a", this::loadOne);
+        rows.put("a", 10);
+
+        now.addAndGet(999);
+        assertThat(cache.get("a", this::loadOne)).isEqualTo(1);
+        now.addAndGet(1);
+        assertThat(cache.get("a", this::loadOne)).isEqualTo(10);
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        var cache = cache(10);
+        Integer stale = cache.get("a", key -> {
+            int value = rows.get(key);
+            // A writer commits and invalidates while this load is running.
+            rows.put("a", 10);
+            cache.invalidateAll(List.of("a"));
+            return value;
+        });
+
+        assertThat(stale).isEqualTo(1);
+        assertThat(cache.get("a", this::loadOne)).isEqualTo(10);
+    }
+
+    private ReadThroughCache<String, Integer> cache(int maxSize) {
+        return new ReadThroughCache<>("test", maxSize, 1_000, now::get);
+    }
+
+    private Map<String, Integer> load(Collection<String> keys) {
+        loads++;
+        Map<String, Integer> found = new HashMap<>();
+        keys.forEach(k -> {
+            if (rows.containsKey(k)) found.put(k, rows.get(k));
+        });
+        return found;
+    }
+
+    private Integer loadOne(String key) {
+        loads++;
+        return rows.get(key);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.dronedelivery.service;
+
+import com.example.dronedelivery.repo.LeaseJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Two lease holders over the same H2 database stand in for two application nodes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SchedulerLeasesTest {
+
+    private static final Duration TTL = Duration.ofMillis(600);
+
+    @Autowired
+    LeaseJdbcRepository leaseRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private SchedulerLeases nodeA;
+    private SchedulerLeases nodeB;
+    private String task;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = new SchedulerLeases(leaseRepository, true, TTL);
+        nodeB = new SchedulerLeases(leaseRepository, true, TTL);
+        task = "test-task-" + UUID.randomUUID();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.stop();
+        nodeB.stop();
+    }
+
+    @Test
+    void onlyOneNodeHoldsTheLeaseAndRenewalKeepsTheToken() throws InterruptedException {
+        var lease = nodeA.current(task).orElseThrow();
+        assertThat(nodeB.current(task)).isEmpty();
+
+        Thread.sleep(TTL.multipliedBy(2).toMillis());
+
+        assertThat(nodeA.current(task)).contains(lease);
+        assertThat(nodeB.current(task)).isEmpty();
+    }
+
+    @Test
+    void leaseOfADeadNodeIsTakenOverWithAHigherToken() throws InterruptedException {
+        Instant now = Instant.now();
+        long deadToken = leaseRepository.tryAcquire(task, "dead-node", now, now.plus(TTL)).orElseThrow();
+        assertThat(nodeB.current(task)).isEmpty();
+
+        Thread.sleep(TTL.toMillis() + 100);
+
+        var lease = nodeB.current(task).orElseThrow();
+        assertThat(lease.token()).isGreaterThan(deadToken);
+    }
+
+    @Test
+    void releasedLeaseIsTakenOverImmediately() {
+        nodeA.current(task).orElseThrow();
+        nodeA.stop();
+
+        assertThat(nodeB.current(task)).isPresent();
+    }
+
+    @Test
+    void fenceRejectsAStaleToken() throws InterruptedException {
+        Instant now = Instant.now();
+        long staleToken = leaseRepository.tryAcquire(task, "paused-node", now, now.plusMillis(1)).orElseThrow();
+        Thread.sleep(10);
+        var lease = nodeB.current(task).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(tx -> nodeB.checkFence(lease));
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(
+                tx -> nodeB.checkFence(new SchedulerLeases.Lease(task, staleToken))
+        )).isInstanceOf(SchedulerLeases.LeaseLostException.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.dronedelivery.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TelemetryStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rangeQueryReturnsOneDronesPointsAcrossSegments() {
+        TelemetryStore store = store(4096, Duration.ofDays(1));
+        UUID drone = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        long t0 = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++) {
+            store.append(drone, t0 + i * 1000L, 52.5 + i * 1e-5, 13.4 - i * 1e-5);
+            store.append(other, t0 + i * 1000L, 1.0, 2.0);
+        }
+
+        var track = store.track(drone, Instant.ofEpochMilli(t0 + 100_000), Instant.ofEpochMilli(t0 + 199_000));
+
+        assertThat(store.segmentCount()).isGreaterThan(1);
+        assertThat(track.points()).hasSize(100);
+        assertThat(track.points().get(0).at()).isEqualTo(t0 + 100_000);
+        assertThat(track.points().get(0).lat()).isEqualTo(52.5 + 100 * 1e-5);
+        assertThat(track.points().get(99).lng()).isEqualTo(13.4 - 199 * 1e-5);
+        assertThat(track.truncated()).isFalse();
+    }
+
+    @Test
+    void pointsAreCompressedAfterTheFirst() {
+        TelemetryStore store = store(1 << 20, Duration.ofDays(1));
+        UUID drone = UUID.randomUUID();
+        long t0 = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++) {
+            store.append(drone, t0 + i * 1000L, 52.5 + i * 1e-5, 13.4 - i * 1e-5);
+        }
+
+        // A raw point is 40 bytes (id excluded).
+        assertThat(store.bytesUsed()).isLessThan(20 * 1000);
+    }
+
+    @Test
+    void segmentsSurviveARestart() {
+        UUID drone = UUID.randomUUID();
+        long t0 = System.currentTimeMillis();
+        TelemetryStore first = store(4096, Duration.ofDays(1));
+        for (int i = 0; i < 500; i++) {
+            first.append(drone, t0 + i, i, -i);
+        }
+        first.close();
+
+        TelemetryStore second = store(4096, Duration.ofDays(1));
+
+        assertThat(second.track(drone, Instant.ofEpochMilli(t0), Instant.ofEpochMilli(t0 + 499)).points()).hasSize(500);
+    }
+
+    @Test
+    void retentionDeletesSegmentsWithOnlyOldPoints() {
+        TelemetryStore store = store(4096, Duration.ofHours(1));
+        UUID drone = UUID.randomUUID();
+        long old = Instant.now().minus(Duration.ofHours(3)).toEpochMilli();
+        for (int i = 0; i < 1000; i++) {
+            store.append(drone, old + i, 1.0, 1.0 + i);
+        }
+        int before = store.segmentCount();
+
+        store.maintain();
+
+        assertThat(before).isGreaterThan(1);
+        // The segment still being written is kept.
+        assertThat(store.segmentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void dronesAppendingConcurrentlyKeepEveryPointInOrder() throws InterruptedException {
+        TelemetryStore store = store(4096, Duration.ofDays(1));
+        List<UUID> drones = Stream.generate(UUID::randomUUID).limit(16).toList();
+        long t0 = System.currentTimeMillis();
+        List<Thread> writers = drones.stream().map(drone -> new Thread(() -> {
+            for (int i = 0; i < 500; i++) {
+                store.append(drone, t0 + i, i, -i);
+            }
+        })).toList();
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        for (UUID drone : drones) {
+            var points = store.track(drone, Instant.ofEpochMilli(t0), Instant.ofEpochMilli(t0 + 499)).points();
+            assertThat(points).hasSize(500);
+            assertThat(points).extracting(TelemetrySegment.Point::lat).isSorted();
+        }
+    }
+
+    private TelemetryStore store(int segmentBytes, Duration retention) {
+        return new TelemetryStore(dir, true, Duration.ofHours(1), segmentBytes, retention, 100_000, 4);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.dronedelivery.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void expiresKeysOnceTheirDeadlinePasses() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, 0);
+        wheel.arm("soon", 3500);
+        wheel.arm("overdue", -5000);
+
+        assertThat(wheel.advance(1000)).containsExactly("overdue");
+        assertThat(wheel.advance(3999)).isEmpty();
+        assertThat(wheel.advance(4000)).containsExactly("soon");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void rearmingPostponesAndDisarmingCancels() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, 0);
+        wheel.arm("drone", 4000);
+        wheel.arm("drone", 9000);
+        wheel.arm("gone", 5000);
+        wheel.disarm("gone");
+
+        assertThat(wheel.advance(8000)).isEmpty();
+        assertThat(wheel.advance(9000)).containsExactly("drone");
+    }
+
+    @Test
+    void keepsDeadlinesBeyondOneRevolution() {
+        TimingWheel<String> wheel = new TimingWheel<>(1000, 10, 0);
+        wheel.arm("later", 25_000);
+
+        assertThat(wheel.advance(24_999)).isEmpty();
+        // A long pause still visits every bucket once.
+        assertThat(wheel.advance(100_000)).containsExactly("later");
+    }
+
+    @Test
+    void keysArmedWhileAdvancingExpireOnTheirTick() throws InterruptedException {
+        TimingWheel<Integer> wheel = new TimingWheel<>(1, 8, 0);
+        AtomicLong now = new AtomicLong();
+        AtomicBoolean armed = new AtomicBoolean();
+        Set<Integer> expired = new HashSet<>();
+        Thread ticker = new Thread(() -> {
+            while (!armed.get()) {
+                expired.addAll(wheel.advance(now.incrementAndGet()));
+            }
+        });
+        ticker.start();
+        for (int key = 0; key < 100_000; key++) {
+            // Due on the tick being processed right now, or the next one.
+            wheel.arm(key, now.get());
+        }
+        armed.set(true);
+        ticker.join();
+
+        // Two more ticks cover every key; one filed into a passed bucket would wait a full revolution.
+        expired.addAll(wheel.advance(now.get() + 2));
+        assertThat(expired).hasSize(100_000);
+        assertThat(wheel.size()).isZero();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.dronedelivery.simulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SimulatorStatsTest {
+
+    @Test
+    void bucketUpperBoundIsWithinAQuarterOfTheValue() {
+        for (long micros = 0; micros < 1_000_000; micros++) {
+            long upperBound = SimulatorStats.upperBoundMicros(SimulatorStats.bucket(micros));
+            assertThat(upperBound).isBetween(micros, micros + micros / 4);
+        }
+    }
+
+    @Test
+    void windowReportsPercentilesAndStartsOver() {
+        SimulatorStats stats = new SimulatorStats();
+        for (int i = 1; i <= 100; i++) {
+            stats.record("heartbeat", i * 1000L, i == 100);
+        }
+
+        Map<String, SimulatorStats.OpSummary> window = stats.rollWindow();
+
+        SimulatorStats.OpSummary heartbeat = window.get("heartbeat");
+        assertThat(heartbeat.count()).isEqualTo(100);
+        assertThat(heartbeat.errors()).isEqualTo(1);
+        assertThat(heartbeat.p50Millis()).isCloseTo(50, within(50 * 0.25));
+        assertThat(heartbeat.p99Millis()).isCloseTo(99, within(99 * 0.25));
+        assertThat(heartbeat.maxMillis()).isEqualTo(100.0);
+        assertThat(stats.rollWindow()).isEmpty();
+    }
+}